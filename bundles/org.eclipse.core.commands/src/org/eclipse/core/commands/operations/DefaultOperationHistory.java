@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2010 IBM Corporation and others.
+ * Copyright (c) 2005, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -577,34 +577,7 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		}
 
 		synchronized (undoRedoHistoryLock) {
-			
-			Object[] filtered = filter(redoList, context);
-			for (int i = 0; i < filtered.length; i++) {
-				IUndoableOperation operation = (IUndoableOperation) filtered[i];
-				if (context == GLOBAL_UNDO_CONTEXT
-						|| operation.getContexts().length == 1) {
-					// remove the operation if it only has the context or we are
-					// flushing all
-					redoList.remove(operation);
-					internalRemove(operation);
-				} else {
-					// remove the reference to the context.
-					// See https://bugs.eclipse.org/bugs/show_bug.cgi?id=161786
-					// It is not enough to simply remove the context. There could
-					// be one or more contexts that match the one we are trying to
-					// dispose.
-					IUndoContext[] contexts = operation.getContexts();
-					for (int j = 0; j < contexts.length; j++) {
-						if (contexts[j].matches(context)) {
-							operation.removeContext(contexts[j]);
-						}
-					}
-					if (operation.getContexts().length == 0) {
-						redoList.remove(operation);
-						internalRemove(operation);
-					}
-				}
-			}
+			flush(redoList, context);
 		}
 	}
 
@@ -618,35 +591,7 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		}
 
 		synchronized (undoRedoHistoryLock) {
-			
-			// Get all operations that have the context (or one that matches)
-			Object[] filtered = filter(undoList, context);
-			for (int i = 0; i < filtered.length; i++) {
-				IUndoableOperation operation = (IUndoableOperation) filtered[i];
-				if (context == GLOBAL_UNDO_CONTEXT
-						|| operation.getContexts().length == 1) {
-					// remove the operation if it only has the context or we are
-					// flushing all
-					undoList.remove(operation);
-					internalRemove(operation);
-				} else {
-					// remove the reference to the context.
-					// See https://bugs.eclipse.org/bugs/show_bug.cgi?id=161786
-					// It is not enough to simply remove the context. There could
-					// be one or more contexts that match the one we are trying to
-					// dispose.
-					IUndoContext[] contexts = operation.getContexts();
-					for (int j = 0; j < contexts.length; j++) {
-						if (contexts[j].matches(context)) {
-							operation.removeContext(contexts[j]);
-						}
-					}
-					if (operation.getContexts().length == 0) {
-						undoList.remove(operation);
-						internalRemove(operation);
-					}
-				}
-			}
+			flush(undoList, context);
 		}
 		/*
 		 * There may be an open composite. If it has this context, then the
@@ -680,32 +625,7 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	 */
 	private void forceRedoLimit(IUndoContext context, int max) {
 		synchronized (undoRedoHistoryLock) {
-			Object[] filtered = filter(redoList, context);
-			int size = filtered.length;
-			if (size > 0) {
-				int index = 0;
-				while (size > max) {
-					IUndoableOperation removed = (IUndoableOperation) filtered[index];
-					if (context == GLOBAL_UNDO_CONTEXT
-							|| removed.getContexts().length == 1) {
-						/*
-						 * remove the operation if we are enforcing a global limit
-						 * or if the operation only has the specified context
-						 */
-						redoList.remove(removed);
-						internalRemove(removed);
-					} else {
-						/*
-						 * if the operation has multiple contexts and we've reached
-						 * the limit for only one of them, then just remove the
-						 * context, not the operation.
-						 */
-						removed.removeContext(context);
-					}
-					size--;
-					index++;
-				}
-			}
+			forceLimit(redoList, context, max);
 		}
 	}
 
@@ -715,33 +635,114 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	 */
 	private void forceUndoLimit(IUndoContext context, int max) {
 		synchronized (undoRedoHistoryLock) {
-			Object[] filtered = filter(undoList, context);
-			int size = filtered.length;
-			if (size > 0) {
-				int index = 0;
-				while (size > max) {
-					IUndoableOperation removed = (IUndoableOperation) filtered[index];
-					if (context == GLOBAL_UNDO_CONTEXT
-							|| removed.getContexts().length == 1) {
-						/*
-						 * remove the operation if we are enforcing a global limit
-						 * or if the operation only has the specified context
-						 */
-						undoList.remove(removed);
-						internalRemove(removed);
-					} else {
-						/*
-						 * if the operation has multiple contexts and we've reached
-						 * the limit for only one of them, then just remove the
-						 * context, not the operation.
-						 */
-						removed.removeContext(context);
+			forceLimit(undoList, context, max);
+		}
+	}
+
+	/*
+	 * Force the specified history list to contain max or less items for the
+	 * given context, removing the oldest ones first. Must be called while
+	 * holding the undoRedoHistoryLock.
+	 */
+	private void forceLimit(List list, IUndoContext context, int max) {
+		int size = 0;
+		for (int i = 0; i < list.size(); i++) {
+			if (((IUndoableOperation) list.get(i)).hasContext(context)) {
+				size++;
+			}
+		}
+		if (size <= max) {
+			return;
+		}
+		List removed = new ArrayList();
+		for (int i = 0; i < list.size() && size > max; i++) {
+			IUndoableOperation operation = (IUndoableOperation) list.get(i);
+			if (!operation.hasContext(context)) {
+				continue;
+			}
+			if (context == GLOBAL_UNDO_CONTEXT
+					|| operation.getContexts().length == 1) {
+				/*
+				 * remove the operation if we are enforcing a global limit or
+				 * if the operation only has the specified context
+				 */
+				removed.add(operation);
+			} else {
+				/*
+				 * if the operation has multiple contexts and we've reached the
+				 * limit for only one of them, then just remove the context,
+				 * not the operation.
+				 */
+				operation.removeContext(context);
+			}
+			size--;
+		}
+		removeOperations(list, removed);
+	}
+
+	/*
+	 * Flush all operations that have the given context from the specified
+	 * history list. Must be called while holding the undoRedoHistoryLock.
+	 */
+	private void flush(List list, IUndoContext context) {
+		List removed = new ArrayList();
+		for (int i = 0; i < list.size(); i++) {
+			IUndoableOperation operation = (IUndoableOperation) list.get(i);
+			if (!operation.hasContext(context)) {
+				continue;
+			}
+			if (context == GLOBAL_UNDO_CONTEXT
+					|| operation.getContexts().length == 1) {
+				// remove the operation if it only has the context or we are
+				// flushing all
+				removed.add(operation);
+			} else {
+				// remove the reference to the context.
+				// See https://bugs.eclipse.org/bugs/show_bug.cgi?id=161786
+				// It is not enough to simply remove the context. There could
+				// be one or more contexts that match the one we are trying to
+				// dispose.
+				IUndoContext[] contexts = operation.getContexts();
+				for (int j = 0; j < contexts.length; j++) {
+					if (contexts[j].matches(context)) {
+						operation.removeContext(contexts[j]);
 					}
-					size--;
-					index++;
+				}
+				if (operation.getContexts().length == 0) {
+					removed.add(operation);
 				}
 			}
 		}
+		removeOperations(list, removed);
+	}
+
+	/*
+	 * Remove the given operations from the specified history list in a single
+	 * pass, then dispose them and notify listeners. Removing them one by one
+	 * would shift the remaining entries of the list for each operation. The
+	 * operations must be in the same order as in the list, and are matched by
+	 * identity, since operations may override equals. Must be called while
+	 * holding the undoRedoHistoryLock.
+	 */
+	private void removeOperations(List list, List operations) {
+		if (operations.isEmpty()) {
+			return;
+		}
+		List remaining = new ArrayList(list.size());
+		int next = 0;
+		for (Iterator iterator = list.iterator(); iterator.hasNext();) {
+			Object operation = iterator.next();
+			if (next < operations.size() && operation == operations.get(next)) {
+				next++;
+			} else {
+				remaining.add(operation);
+			}
+		}
+		list.clear();
+		list.addAll(remaining);
+		for (int i = 0; i < operations.size(); i++) {
+			internalRemove((IUndoableOperation) operations.get(i));
+		}
 	}
 
 	/*
@@ -41,6 +41,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.core.runtime.jobs.ProgressProvider;
 import org.eclipse.e4.core.di.annotations.Optional;
+import org.eclipse.e4.ui.internal.workbench.ProgressOwnership;
 import org.eclipse.e4.ui.progress.IProgressConstants;
 import org.eclipse.e4.ui.progress.IProgressService;
 import org.eclipse.e4.ui.progress.UIJob;
@@ -148,8 +149,7 @@ public class ProgressManager extends ProgressProvider {
 		
 		changeListener = createChangeListener();
 		
-		Job.getJobManager().setProgressProvider(this);
-		Job.getJobManager().addJobChangeListener(this.changeListener);
+		ProgressOwnership.acquire(this, this.changeListener);
 	}
 
 	private void setUpImages() {
@@ -903,8 +903,7 @@ public class ProgressManager extends ProgressProvider {
 	 */
 	private void shutdown() {
 		listeners.clear();
-		Job.getJobManager().setProgressProvider(null);
-		Job.getJobManager().removeJobChangeListener(this.changeListener);
+		ProgressOwnership.release(this);
 	}
 
 	/**
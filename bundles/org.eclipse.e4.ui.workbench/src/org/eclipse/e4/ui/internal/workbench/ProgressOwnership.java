@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
+import org.eclipse.core.runtime.jobs.IJobManager;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.ProgressProvider;
+
+/**
+ * Decides which progress manager tracks the jobs of the job manager. The
+ * workbench and the e4 progress bundle each have a progress manager, and in
+ * applications that run both, both used to set themselves as the progress
+ * provider and to listen to all job changes. Only one progress provider can be
+ * set, so the manager that is not the provider got no progress from the jobs,
+ * but still kept the books for every job event.
+ * <p>
+ * Progress managers acquire the job manager through this class instead. The
+ * manager that acquired it last owns it: it is the progress provider and its
+ * job change listener is the only one added to the job manager. The other
+ * managers keep their state, but receive no job events until the owner
+ * releases the job manager, which then goes back to the previous one.
+ * </p>
+ */
+public final class ProgressOwnership {
+
+	private static final class Owner {
+		final ProgressProvider provider;
+		final IJobChangeListener listener;
+
+		Owner(ProgressProvider provider, IJobChangeListener listener) {
+			this.provider = provider;
+			this.listener = listener;
+		}
+	}
+
+	/**
+	 * The managers that acquired the job manager, the owner last. Guarded by
+	 * the class.
+	 */
+	private static final List<Owner> owners = new ArrayList<Owner>();
+
+	private ProgressOwnership() {
+		// not instantiated
+	}
+
+	/**
+	 * Makes the given progress manager the owner of the job manager.
+	 * 
+	 * @param provider
+	 *            the progress manager, set as the progress provider
+	 * @param listener
+	 *            the job change listener of the progress manager
+	 */
+	public static synchronized void acquire(ProgressProvider provider, IJobChangeListener listener) {
+		IJobManager jobManager = Job.getJobManager();
+		if (!owners.isEmpty()) {
+			jobManager.removeJobChangeListener(owners.get(owners.size() - 1).listener);
+		}
+		owners.add(new Owner(provider, listener));
+		jobManager.setProgressProvider(provider);
+		jobManager.addJobChangeListener(listener);
+	}
+
+	/**
+	 * Releases the job manager acquired by the given progress manager. If it
+	 * owns the job manager, the previous owner takes over again. Does nothing
+	 * if the manager did not acquire the job manager.
+	 * 
+	 * @param provider
+	 *            the progress manager
+	 */
+	public static synchronized void release(ProgressProvider provider) {
+		int index = -1;
+		for (int i = owners.size() - 1; i >= 0; i--) {
+			if (owners.get(i).provider == provider) {
+				index = i;
+				break;
+			}
+		}
+		if (index == -1) {
+			return;
+		}
+		Owner owner = owners.remove(index);
+		if (index < owners.size()) {
+			// not the owner, so its listener is not registered
+			return;
+		}
+		IJobManager jobManager = Job.getJobManager();
+		jobManager.removeJobChangeListener(owner.listener);
+		if (owners.isEmpty()) {
+			jobManager.setProgressProvider(null);
+		} else {
+			Owner previous = owners.get(owners.size() - 1);
+			jobManager.setProgressProvider(previous.provider);
+			jobManager.addJobChangeListener(previous.listener);
+		}
+	}
+}
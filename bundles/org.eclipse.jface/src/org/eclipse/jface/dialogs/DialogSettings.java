@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -32,16 +32,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * Concrete implementation of a dialog settings (<code>IDialogSettings</code>)
@@ -97,6 +91,13 @@ public class DialogSettings implements IDialogSettings {
 
     private static final String TAG_ITEM = "item";//$NON-NLS-1$
 
+    /**
+     * The factory used to create the parsers reading the settings. Creating a
+     * factory looks up the implementation, so it is only done once. Once
+     * configured, the factory may be used by several threads.
+     */
+    private static XMLInputFactory inputFactory;
+
     /**
      * Create an empty dialog settings which loads and saves its
      * content to a file.
@@ -294,27 +295,49 @@ public class DialogSettings implements IDialogSettings {
      */
     @Override
 	public void load(Reader r) {
-        Document document = null;
+        // Read into a new instance, so that nothing is loaded if the
+        // document turns out to be malformed.
+        DialogSettings loaded = new DialogSettings("NoName");//$NON-NLS-1$
+        XMLStreamReader reader = null;
         try {
-            DocumentBuilder parser = DocumentBuilderFactory.newInstance()
-                    .newDocumentBuilder();
-            //		parser.setProcessNamespace(true);
-            document = parser.parse(new InputSource(r));
-
-            //Strip out any comments first
-            Node root = document.getFirstChild();
-            while (root.getNodeType() == Node.COMMENT_NODE) {
-                document.removeChild(root);
-                root = document.getFirstChild();
+            reader = getInputFactory().createXMLStreamReader(r);
+            // Skip the prolog and any comments before the root element
+            while (reader.hasNext() && reader.next() != XMLStreamConstants.START_ELEMENT) {
+                // continue
             }
-            load(document, (Element) root);
-        } catch (ParserConfigurationException e) {
-            // ignore
-        } catch (IOException e) {
-            // ignore
-        } catch (SAXException e) {
-            // ignore
+            if (!reader.isStartElement()) {
+                return;
+            }
+            loaded.load(reader);
+            // Check that the rest of the document is well-formed
+            while (reader.hasNext()) {
+                reader.next();
+            }
+        } catch (XMLStreamException e) {
+            return;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // ignore
+                }
+            }
+        }
+        name = loaded.name;
+        items.putAll(loaded.items);
+        arrayItems.putAll(loaded.arrayItems);
+        sections.putAll(loaded.sections);
+    }
+
+    private static synchronized XMLInputFactory getInputFactory() {
+        if (inputFactory == null) {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+            inputFactory = factory;
         }
+        return inputFactory;
     }
 
     /* (non-Javadoc)
@@ -330,45 +353,73 @@ public class DialogSettings implements IDialogSettings {
     }
 
     /* (non-Javadoc)
-     * Load the setting from the <code>document</code>
+     * Load the setting from the element the <code>reader</code> is positioned
+     * on. Only direct children of the element are read, any other elements
+     * are skipped. Returns with the reader on the end of the element.
      */
-    private void load(Document document, Element root) {
-        name = root.getAttribute(TAG_NAME);
-        NodeList l = root.getElementsByTagName(TAG_ITEM);
-        for (int i = 0; i < l.getLength(); i++) {
-            Node n = l.item(i);
-            if (root == n.getParentNode()) {
-                String key = ((Element) l.item(i)).getAttribute(TAG_KEY);
-                String value = ((Element) l.item(i)).getAttribute(TAG_VALUE);
-                items.put(key, value);
-            }
-        }
-        l = root.getElementsByTagName(TAG_LIST);
-        for (int i = 0; i < l.getLength(); i++) {
-            Node n = l.item(i);
-            if (root == n.getParentNode()) {
-                Element child = (Element) l.item(i);
-                String key = child.getAttribute(TAG_KEY);
-                NodeList list = child.getElementsByTagName(TAG_ITEM);
+    private void load(XMLStreamReader reader) throws XMLStreamException {
+        name = getAttribute(reader, TAG_NAME);
+        while (nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+            String tag = reader.getLocalName();
+            if (TAG_ITEM.equals(tag)) {
+                items.put(getAttribute(reader, TAG_KEY), getAttribute(reader, TAG_VALUE));
+                skipElement(reader);
+            } else if (TAG_LIST.equals(tag)) {
+                String key = getAttribute(reader, TAG_KEY);
                 List<String> valueList = new ArrayList<String>();
-                for (int j = 0; j < list.getLength(); j++) {
-                    Element node = (Element) list.item(j);
-                    if (child == node.getParentNode()) {
-                        valueList.add(node.getAttribute(TAG_VALUE));
+                while (nextTag(reader) == XMLStreamConstants.START_ELEMENT) {
+                    if (TAG_ITEM.equals(reader.getLocalName())) {
+                        valueList.add(getAttribute(reader, TAG_VALUE));
                     }
+                    skipElement(reader);
                 }
                 String[] value = new String[valueList.size()];
                 valueList.toArray(value);
                 arrayItems.put(key, value);
-            }
-        }
-        l = root.getElementsByTagName(TAG_SECTION);
-        for (int i = 0; i < l.getLength(); i++) {
-            Node n = l.item(i);
-            if (root == n.getParentNode()) {
+            } else if (TAG_SECTION.equals(tag)) {
                 DialogSettings s = new DialogSettings("NoName");//$NON-NLS-1$
-                s.load(document, (Element) n);
+                s.load(reader);
                 addSection(s);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    /*
+     * Returns the value of the attribute, or an empty string if the element
+     * does not have the attribute.
+     */
+    private static String getAttribute(XMLStreamReader reader, String attribute) {
+        String value = reader.getAttributeValue(null, attribute);
+        return value == null ? "" : value; //$NON-NLS-1$
+    }
+
+    /*
+     * Advances the reader to the next start or end of an element, ignoring
+     * text, comments and processing instructions in between.
+     */
+    private static int nextTag(XMLStreamReader reader) throws XMLStreamException {
+        int event;
+        do {
+            event = reader.next();
+        } while (event != XMLStreamConstants.START_ELEMENT
+                && event != XMLStreamConstants.END_ELEMENT);
+        return event;
+    }
+
+    /*
+     * Skips the element the reader is positioned on, including its content.
+     * Returns with the reader on the end of the element.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
             }
         }
     }
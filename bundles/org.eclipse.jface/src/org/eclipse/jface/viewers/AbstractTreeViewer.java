@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -96,6 +96,13 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	 */
 	private boolean isExpandableCheckFilters = false;
 
+	/**
+	 * Greater than zero while many nodes are expanded in one operation, see
+	 * {@link #runExpansionBatch(Runnable)}. Nodes created during a batch do
+	 * not show the busy indicator individually.
+	 */
+	private int expansionBatchDepth = 0;
+
 	/**
 	 * Safe runnable used to update an item.
 	 */
@@ -788,7 +795,7 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 				}
 			}
 
-			BusyIndicator.showWhile(widget.getDisplay(), new Runnable() {
+			Runnable create = new Runnable() {
 				@Override
 				public void run() {
 					// fix for PR 1FW89L7:
@@ -820,12 +827,48 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 					}
 				}
 
-			});
+			};
+			if (expansionBatchDepth > 0) {
+				// the batch already shows the busy indicator
+				create.run();
+			} else {
+				BusyIndicator.showWhile(widget.getDisplay(), create);
+			}
 		} finally {
 			setBusy(oldBusy);
 		}
 	}
 
+	/**
+	 * Runs an operation that expands many nodes, e.g. when restoring the
+	 * expanded state of the tree. The busy indicator is shown and redraw is
+	 * suspended once for the whole operation instead of once for each node
+	 * whose children are created.
+	 *
+	 * @param runnable
+	 *            the operation to run
+	 */
+	private void runExpansionBatch(final Runnable runnable) {
+		if (expansionBatchDepth > 0) {
+			runnable.run();
+			return;
+		}
+		final Control control = getControl();
+		BusyIndicator.showWhile(control.getDisplay(), new Runnable() {
+			@Override
+			public void run() {
+				expansionBatchDepth++;
+				control.setRedraw(false);
+				try {
+					runnable.run();
+				} finally {
+					control.setRedraw(true);
+					expansionBatchDepth--;
+				}
+			}
+		});
+	}
+
 	/**
 	 * Creates a single item for the given parent and synchronizes it with the
 	 * given element.
@@ -1063,9 +1106,21 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	 *            non-negative level, or <code>ALL_LEVELS</code> to expand all
 	 *            levels of the tree
 	 */
-	public void expandToLevel(Object elementOrTreePath, int level) {
+	public void expandToLevel(final Object elementOrTreePath, final int level) {
 		if (checkBusy())
 			return;
+		if (level == ALL_LEVELS || level > 1) {
+			runExpansionBatch(new Runnable() {
+				@Override
+				public void run() {
+					Widget w = internalExpand(elementOrTreePath, true);
+					if (w != null) {
+						internalExpandToLevel(w, level);
+					}
+				}
+			});
+			return;
+		}
 		Widget w = internalExpand(elementOrTreePath, true);
 		if (w != null) {
 			internalExpandToLevel(w, level);
@@ -1519,15 +1574,15 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		preservingSelection(new Runnable() {
 			@Override
 			public void run() {
-	            Control tree = getControl();
-	            tree.setRedraw(false);
-	            try {
-	                removeAll(tree);
-	                tree.setData(getRoot());
-	                internalInitializeTree(tree);
-	            } finally {
-	                tree.setRedraw(true);
-	            }
+				runExpansionBatch(new Runnable() {
+					@Override
+					public void run() {
+						Control tree = getControl();
+						removeAll(tree);
+						tree.setData(getRoot());
+						internalInitializeTree(tree);
+					}
+				});
 			}
 		});
 	}
@@ -2409,26 +2464,37 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	 *            the array of expanded elements
 	 * @see #getExpandedElements
 	 */
-	public void setExpandedElements(Object[] elements) {
+	public void setExpandedElements(final Object[] elements) {
 		assertElementsNotNull(elements);
 		if (checkBusy()) {
 			return;
 		}
-		CustomHashtable expandedElements = newHashtable(elements.length * 2 + 1);
-		for (int i = 0; i < elements.length; ++i) {
-			Object element = elements[i];
-			// Ensure item exists for element. This will materialize items for
-			// each element and their parents, if possible. This is important
-			// to support expanding of inner tree nodes without necessarily
-			// expanding their parents.
-			internalExpand(element, false);
-			expandedElements.put(element, element);
+		Runnable expand = new Runnable() {
+			@Override
+			public void run() {
+				CustomHashtable expandedElements = newHashtable(elements.length * 2 + 1);
+				for (int i = 0; i < elements.length; ++i) {
+					Object element = elements[i];
+					// Ensure item exists for element. This will materialize items for
+					// each element and their parents, if possible. This is important
+					// to support expanding of inner tree nodes without necessarily
+					// expanding their parents.
+					internalExpand(element, false);
+					expandedElements.put(element, element);
+				}
+				// this will traverse all existing items, and create children for
+				// elements that need to be expanded. If the tree contains multiple
+				// equal elements, and those are in the set of elements to be expanded,
+				// only the first item found for each element will be expanded.
+				internalSetExpanded(expandedElements, getControl());
+			}
+		};
+		if (elements.length == 0) {
+			// only collapses, no need to suspend redraw
+			expand.run();
+		} else {
+			runExpansionBatch(expand);
 		}
-		// this will traverse all existing items, and create children for
-		// elements that need to be expanded. If the tree contains multiple
-		// equal elements, and those are in the set of elements to be expanded,
-		// only the first item found for each element will be expanded.
-		internalSetExpanded(expandedElements, getControl());
 	}
 
 	/**
@@ -2446,40 +2512,51 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	 *
 	 * @since 3.2
 	 */
-	public void setExpandedTreePaths(TreePath[] treePaths) {
+	public void setExpandedTreePaths(final TreePath[] treePaths) {
 		assertElementsNotNull(treePaths);
 		if (checkBusy())
 			return;
-		final IElementComparer comparer = getComparer();
-		IElementComparer treePathComparer = new IElementComparer() {
-
+		Runnable expand = new Runnable() {
 			@Override
-			public boolean equals(Object a, Object b) {
-				return ((TreePath) a).equals(((TreePath) b), comparer);
-			}
+			public void run() {
+				final IElementComparer comparer = getComparer();
+				IElementComparer treePathComparer = new IElementComparer() {
 
-			@Override
-			public int hashCode(Object element) {
-				return ((TreePath) element).hashCode(comparer);
+					@Override
+					public boolean equals(Object a, Object b) {
+						return ((TreePath) a).equals(((TreePath) b), comparer);
+					}
+
+					@Override
+					public int hashCode(Object element) {
+						return ((TreePath) element).hashCode(comparer);
+					}
+				};
+				CustomHashtable expandedTreePaths = new CustomHashtable(
+						treePaths.length * 2 + 1, treePathComparer);
+				for (int i = 0; i < treePaths.length; ++i) {
+					TreePath treePath = treePaths[i];
+					// Ensure item exists for element. This will materialize items for
+					// each element and their parents, if possible. This is important
+					// to support expanding of inner tree nodes without necessarily
+					// expanding their parents.
+					internalExpand(treePath, false);
+					expandedTreePaths.put(treePath, treePath);
+				}
+				// this will traverse all existing items, and create children for
+				// elements that need to be expanded. If the tree contains multiple
+				// equal elements, and those are in the set of elements to be expanded,
+				// only the first item found for each element will be expanded.
+				internalSetExpandedTreePaths(expandedTreePaths, getControl(),
+						new TreePath(new Object[0]));
 			}
 		};
-		CustomHashtable expandedTreePaths = new CustomHashtable(
-				treePaths.length * 2 + 1, treePathComparer);
-		for (int i = 0; i < treePaths.length; ++i) {
-			TreePath treePath = treePaths[i];
-			// Ensure item exists for element. This will materialize items for
-			// each element and their parents, if possible. This is important
-			// to support expanding of inner tree nodes without necessarily
-			// expanding their parents.
-			internalExpand(treePath, false);
-			expandedTreePaths.put(treePath, treePath);
-		}
-		// this will traverse all existing items, and create children for
-		// elements that need to be expanded. If the tree contains multiple
-		// equal elements, and those are in the set of elements to be expanded,
-		// only the first item found for each element will be expanded.
-		internalSetExpandedTreePaths(expandedTreePaths, getControl(),
-				new TreePath(new Object[0]));
+		if (treePaths.length == 0) {
+			// only collapses, no need to suspend redraw
+			expand.run();
+		} else {
+			runExpansionBatch(expand);
+		}
 	}
 
 	/**
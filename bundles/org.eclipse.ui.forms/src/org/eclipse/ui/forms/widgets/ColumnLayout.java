@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -79,14 +79,14 @@ public final class ColumnLayout extends Layout implements ILayoutExtension {
 
 	protected Point computeSize(Composite composite, int wHint, int hHint, boolean flushCache) {
 		if (wHint == 0)
-			return computeSize(composite, wHint, hHint, minNumColumns);
+			return computeSize(composite, wHint, hHint, minNumColumns, flushCache);
 		else if (wHint == SWT.DEFAULT)
-			return computeSize(composite, wHint, hHint, maxNumColumns);
+			return computeSize(composite, wHint, hHint, maxNumColumns, flushCache);
 		else
-			return computeSize(composite, wHint, hHint, -1);
+			return computeSize(composite, wHint, hHint, -1, flushCache);
 	}
 
-	private Point computeSize(Composite parent, int wHint, int hHint, int ncolumns) {
+	private Point computeSize(Composite parent, int wHint, int hHint, int ncolumns, boolean flushCache) {
 		Control[] children = parent.getChildren();
 		int cwidth = 0;
 		int cheight = 0;
@@ -102,7 +102,7 @@ public final class ColumnLayout extends Layout implements ILayoutExtension {
 		}
 
 		for (int i = 0; i < children.length; i++) {
-			sizes[i] = computeControlSize(children[i], cwHint);
+			sizes[i] = computeControlSize(children[i], cwHint, flushCache);
 			cwidth = Math.max(cwidth, sizes[i].x);
 			cheight += sizes[i].y;
 		}
@@ -149,11 +149,12 @@ public final class ColumnLayout extends Layout implements ILayoutExtension {
 		return size;
 	}
 
-	private Point computeControlSize(Control c, int wHint) {
+	private Point computeControlSize(Control c, int wHint, boolean flushCache) {
 		ColumnLayoutData cd = (ColumnLayoutData) c.getLayoutData();
 		int widthHint = cd != null ? cd.widthHint : wHint;
 		int heightHint = cd != null ? cd.heightHint : SWT.DEFAULT;
-		return c.computeSize(widthHint, heightHint);
+		// only let the children flush their layout caches if ours is flushed
+		return c.computeSize(widthHint, heightHint, flushCache);
 	}
 
 	private int findShortestColumn(int[] heights) {
@@ -181,7 +182,7 @@ public final class ColumnLayout extends Layout implements ILayoutExtension {
 		int cheight = 0;
 		Point[] sizes = new Point[children.length];
 		for (int i = 0; i < children.length; i++) {
-			sizes[i] = computeControlSize(children[i], SWT.DEFAULT);
+			sizes[i] = computeControlSize(children[i], SWT.DEFAULT, flushCache);
 			cwidth = Math.max(cwidth, sizes[i].x);
 			cheight += sizes[i].y;
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -206,6 +206,14 @@ public class FormText extends Canvas {
 
 	private Hashtable resourceTable = new Hashtable();
 
+	/*
+	 * Text sizes already computed for a width hint (Integer -> Point). Flushed
+	 * whenever the text or the resources used to render it change.
+	 */
+	private Hashtable textSizeCache = new Hashtable();
+
+	private static final int TEXT_SIZE_CACHE_LIMIT = 16;
+
 	private IHyperlinkSegment entered;
 
 	private IHyperlinkSegment armed;
@@ -231,7 +239,7 @@ public class FormText extends Canvas {
 		}
 
 		public int computeMinimumWidth(Composite parent, boolean changed) {
-			return computeSize(parent, 5, SWT.DEFAULT, true).x;
+			return computeSize(parent, 5, SWT.DEFAULT, changed).x;
 		}
 
 		/*
@@ -243,6 +251,8 @@ public class FormText extends Canvas {
 
 			if (DEBUG_TEXT)
 				start = System.currentTimeMillis();
+			if (changed)
+				textSizeCache.clear();
 			int innerWidth = wHint;
 			if (innerWidth != SWT.DEFAULT)
 				innerWidth -= marginWidth * 2;
@@ -262,6 +272,10 @@ public class FormText extends Canvas {
 		}
 
 		private Point computeTextSize(int wHint) {
+			Integer key = new Integer(wHint);
+			Point cached = (Point) textSizeCache.get(key);
+			if (cached != null)
+				return new Point(cached.x, cached.y);
 			Paragraph[] paragraphs = model.getParagraphs();
 			GC gc = new GC(FormText.this);
 			gc.setFont(getFont());
@@ -270,6 +284,8 @@ public class FormText extends Canvas {
 			FontMetrics fm = gc.getFontMetrics();
 			int lineHeight = fm.getHeight();
 			boolean selectableInTheLastRow = false;
+			// the preferred size of controls can change at any time
+			boolean cacheable = true;
 			for (int i = 0; i < paragraphs.length; i++) {
 				Paragraph p = paragraphs[i];
 				if (i > 0 && getParagraphsSeparated()
@@ -292,6 +308,8 @@ public class FormText extends Canvas {
 						}
 						if (segment instanceof IFocusSelectable)
 							selectableInTheLastRow = true;
+						if (segment instanceof ControlSegment)
+							cacheable = false;
 					}
 					if (wHint == SWT.DEFAULT)
 						width = Math.max(width, pwidth);
@@ -304,6 +322,11 @@ public class FormText extends Canvas {
 			gc.dispose();
 			if (selectableInTheLastRow)
 				loc.y += 1;
+			if (cacheable) {
+				if (textSizeCache.size() >= TEXT_SIZE_CACHE_LIMIT)
+					textSizeCache.clear();
+				textSizeCache.put(key, new Point(width, loc.y));
+			}
 			return new Point(width, loc.y);
 		}
 
@@ -535,6 +558,7 @@ public class FormText extends Canvas {
 	 */
 	public void setParagraphsSeparated(boolean value) {
 		paragraphsSeparated = value;
+		textSizeCache.clear();
 	}
 
 	/**
@@ -562,6 +586,7 @@ public class FormText extends Canvas {
 	 */
 	public void setImage(String key, Image image) {
 		resourceTable.put("i." + key, image); //$NON-NLS-1$
+		textSizeCache.clear();
 	}
 
 	/**
@@ -607,6 +632,7 @@ public class FormText extends Canvas {
 		else
 			resourceTable.put(fullKey, font);
 		model.clearCache(fullKey);
+		textSizeCache.clear();
 	}
 
 	/**
@@ -631,6 +657,7 @@ public class FormText extends Canvas {
 			resourceTable.remove(fullKey);
 		else
 			resourceTable.put(fullKey, control);
+		textSizeCache.clear();
 	}
 
 	/**
@@ -644,6 +671,7 @@ public class FormText extends Canvas {
 	public void setFont(Font font) {
 		super.setFont(font);
 		model.clearCache(null);
+		textSizeCache.clear();
 		Font boldFont = (Font) resourceTable.get(FormTextModel.BOLD_FONT_ID);
 		if (boldFont != null) {
 			FormFonts.getInstance().markFinished(boldFont, getDisplay());
@@ -674,6 +702,7 @@ public class FormText extends Canvas {
 		else
 			model.parseRegularText(text, expandURLs);
 		hookControlSegmentFocus();
+		textSizeCache.clear();
 		layout();
 		redraw();
 	}
@@ -694,6 +723,7 @@ public class FormText extends Canvas {
 		disposeResourceTable(false);
 		model.parseInputStream(is, expandURLs);
 		hookControlSegmentFocus();
+		textSizeCache.clear();
 		layout();
 		redraw();
 	}
@@ -1563,6 +1593,7 @@ public class FormText extends Canvas {
 			return;
 		boldFont = FormFonts.getInstance().getBoldFont(getDisplay(), regularFont);
 		resourceTable.put(FormTextModel.BOLD_FONT_ID, boldFont);
+		textSizeCache.clear();
 	}
 
 	private void paint(PaintEvent e) {
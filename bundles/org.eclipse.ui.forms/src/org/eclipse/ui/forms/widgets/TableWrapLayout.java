@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2000, 2011 IBM Corporation and others.
+ *  Copyright (c) 2000, 2014 IBM Corporation and others.
  *  All rights reserved. This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License v1.0
  *  which accompanies this distribution, and is available at
@@ -87,10 +87,21 @@ public final class TableWrapLayout extends Layout implements ILayoutExtension {
 	 */
 	public boolean makeColumnsEqualWidth = false;
 
-	private boolean initialLayout = true;
-
 	private Vector grid = null;
 
+	/*
+	 * What the grid was created from: the children, their layout data, and the
+	 * spans and grab flags of the layout data at that time. The grid is reused
+	 * as long as they and the number of columns stay the same.
+	 */
+	private Control[] gridChildren;
+
+	private TableWrapData[] gridData;
+
+	private int[] gridSpans;
+
+	private int gridColumns;
+
 	private Hashtable rowspans;
 
 	private int[] minColumnWidths, maxColumnWidths;
@@ -152,23 +163,13 @@ public final class TableWrapLayout extends Layout implements ILayoutExtension {
 
 		cache.setControls(children);
 
-		changed = true;
-		initializeIfNeeded(parent, changed);
-		if (initialLayout) {
-			changed = true;
-			initialLayout = false;
-		}
-		if (grid == null || changed) {
-			changed = true;
-			grid = new Vector();
-			createGrid(parent);
-		}
+		updateGrid(parent, children, changed);
 		if (minColumnWidths == null)
 			minColumnWidths = new int[numColumns];
 		for (int i = 0; i < numColumns; i++) {
 			minColumnWidths[i] = 0;
 		}
-		return internalGetMinimumWidth(parent, changed);
+		return internalGetMinimumWidth(parent, true);
 	}
 
 	/**
@@ -184,23 +185,13 @@ public final class TableWrapLayout extends Layout implements ILayoutExtension {
 
 		cache.setControls(children);
 
-		changed = true;
-		initializeIfNeeded(parent, changed);
-		if (initialLayout) {
-			changed = true;
-			initialLayout = false;
-		}
-		if (grid == null || changed) {
-			changed = true;
-			grid = new Vector();
-			createGrid(parent);
-		}
+		updateGrid(parent, children, changed);
 		if (maxColumnWidths == null)
 			maxColumnWidths = new int[numColumns];
 		for (int i = 0; i < numColumns; i++) {
 			maxColumnWidths[i] = 0;
 		}
-		return internalGetMaximumWidth(parent, changed);
+		return internalGetMaximumWidth(parent, true);
 	}
 
 	/**
@@ -220,20 +211,10 @@ public final class TableWrapLayout extends Layout implements ILayoutExtension {
 		cache.setControls(children);
 
 		int parentWidth = clientArea.width;
-		changed = true;
-		initializeIfNeeded(parent, changed);
-		if (initialLayout) {
-			changed = true;
-			initialLayout = false;
-		}
-		if (grid == null || changed) {
-			changed = true;
-			grid = new Vector();
-			createGrid(parent);
-		}
+		updateGrid(parent, children, changed);
 		resetColumnWidths();
-		int minWidth = internalGetMinimumWidth(parent, changed);
-		int maxWidth = internalGetMaximumWidth(parent, changed);
+		int minWidth = internalGetMinimumWidth(parent, true);
+		int maxWidth = internalGetMaximumWidth(parent, true);
 		int tableWidth = parentWidth;
 		int[] columnWidths;
 		if (parentWidth <= minWidth) {
@@ -586,20 +567,10 @@ public final class TableWrapLayout extends Layout implements ILayoutExtension {
 		cache.setControls(children);
 
 		int parentWidth = wHint;
-		changed = true;
-		initializeIfNeeded(parent, changed);
-		if (initialLayout) {
-			changed = true;
-			initialLayout = false;
-		}
-		if (grid == null || changed) {
-			changed = true;
-			grid = new Vector();
-			createGrid(parent);
-		}
+		updateGrid(parent, children, changed);
 		resetColumnWidths();
-		int minWidth = internalGetMinimumWidth(parent, changed);
-		int maxWidth = internalGetMaximumWidth(parent, changed);
+		int minWidth = internalGetMinimumWidth(parent, true);
+		int maxWidth = internalGetMaximumWidth(parent, true);
 		
 		if (wHint == SWT.DEFAULT)
 			parentWidth = maxWidth;
@@ -853,15 +824,62 @@ public final class TableWrapLayout extends Layout implements ILayoutExtension {
 		return (control.getStyle() & SWT.WRAP) != 0;
 	}	
 
-	private void initializeIfNeeded(Composite parent, boolean changed) {
-		if (changed)
-			initialLayout = true;
-		if (initialLayout) {
-			initializeLayoutData(parent);
-			initialLayout = false;
+	/*
+	 * Makes sure that all children have layout data, and recreates the grid
+	 * unless the children, their spans and the number of columns are still the
+	 * ones the grid was created from.
+	 */
+	private void updateGrid(Composite parent, Control[] children,
+			boolean changed) {
+		initializeLayoutData(parent);
+		if (grid == null || changed || !isGridValid(children)) {
+			grid = new Vector();
+			createGrid(parent);
+			rememberGrid(children);
+		} else {
+			// row spans collect heights during each pass
+			for (Enumeration enm = rowspans.elements(); enm.hasMoreElements();) {
+				RowSpan rowspan = (RowSpan) enm.nextElement();
+				rowspan.height = 0;
+				rowspan.totalHeight = 0;
+			}
 		}
 	}
 
+	private boolean isGridValid(Control[] children) {
+		if (gridChildren == null || gridChildren.length != children.length
+				|| gridColumns != numColumns)
+			return false;
+		for (int i = 0; i < children.length; i++) {
+			if (gridChildren[i] != children[i]
+					|| gridData[i] != children[i].getLayoutData()
+					|| !hasSpans(gridData[i], gridSpans, i))
+				return false;
+		}
+		return true;
+	}
+
+	private void rememberGrid(Control[] children) {
+		gridChildren = children;
+		gridColumns = numColumns;
+		gridData = new TableWrapData[children.length];
+		gridSpans = new int[children.length * 3];
+		for (int i = 0; i < children.length; i++) {
+			TableWrapData td = (TableWrapData) children[i].getLayoutData();
+			gridData[i] = td;
+			gridSpans[i * 3] = td.colspan;
+			gridSpans[i * 3 + 1] = td.rowspan;
+			gridSpans[i * 3 + 2] = (td.grabHorizontal ? 1 : 0)
+					| (td.grabVertical ? 2 : 0);
+		}
+	}
+
+	private static boolean hasSpans(TableWrapData td, int[] spans, int index) {
+		return spans[index * 3] == td.colspan
+				&& spans[index * 3 + 1] == td.rowspan
+				&& spans[index * 3 + 2] == ((td.grabHorizontal ? 1 : 0) | (td.grabVertical ? 2 : 0));
+	}
+
 	void initializeLayoutData(Composite composite) {
 		Control[] children = composite.getChildren();
 		for (int i = 0; i < children.length; i++) {
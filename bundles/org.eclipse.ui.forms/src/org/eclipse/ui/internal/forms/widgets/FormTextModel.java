@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,41 +16,27 @@ import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.Vector;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.ui.forms.HyperlinkSettings;
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.ErrorHandler;
+import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
 
 public class FormTextModel {
 	
-	/*
-	 * This class prevents parse errors from being written to standard output
-	 */
-	public class ParseErrorHandler implements ErrorHandler {
-
-		public void error(SAXParseException arg0) throws SAXException {
-		}
-
-		public void fatalError(SAXParseException arg0) throws SAXException {
-		}
-
-		public void warning(SAXParseException arg0) throws SAXException {
-		}
-	}
-
-	private static final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory
+	private static final SAXParserFactory parserFactory = SAXParserFactory
 			.newInstance();
 
+	private static final String LEXICAL_HANDLER_PROPERTY = "http://xml.org/sax/properties/lexical-handler"; //$NON-NLS-1$
+
 	private boolean whitespaceNormalized = true;
 
 	private Vector paragraphs;
@@ -116,17 +102,20 @@ public class FormTextModel {
 
 	public void parseInputStream(InputStream is, boolean expandURLs) {
 
-		documentBuilderFactory.setNamespaceAware(true);
-		documentBuilderFactory.setIgnoringComments(true);
+		parserFactory.setNamespaceAware(true);
 
 		reset();
 		try {
-			DocumentBuilder parser = documentBuilderFactory
-					.newDocumentBuilder();
-			parser.setErrorHandler(new ParseErrorHandler());
+			SAXParser parser = parserFactory.newSAXParser();
+			ParseHandler handler = new ParseHandler(expandURLs);
+			try {
+				parser.setProperty(LEXICAL_HANDLER_PROPERTY, handler);
+			} catch (SAXException e) {
+				// CDATA sections will be treated like text
+			}
 			InputSource source = new InputSource(is);
-			Document doc = parser.parse(source);
-			processDocument(doc, expandURLs);
+			parser.parse(source, handler);
+			paragraphs.addAll(handler.getParagraphs());
 		} catch (ParserConfigurationException e) {
 			SWT.error(SWT.ERROR_INVALID_ARGUMENT, e, " " + e.getMessage()); //$NON-NLS-1$
 		} catch (SAXException e) {
@@ -136,66 +125,205 @@ public class FormTextModel {
 		}
 	}
 
-	private void processDocument(Document doc, boolean expandURLs) {
-		Node root = doc.getDocumentElement();
-		NodeList children = root.getChildNodes();
-		processSubnodes(paragraphs, children, expandURLs);
-	}
+	/*
+	 * Builds the paragraphs while the document is parsed. Text is collected
+	 * between markup events, so that each piece of text corresponds to a text
+	 * node of the document. The depth is 1 for the content of the root
+	 * element, 2 for the content of paragraphs and list items and 3 for the
+	 * content of hyperlinks, spans and bold text. Elements that are not
+	 * understood at their depth are skipped with all their content.
+	 */
+	private class ParseHandler extends DefaultHandler implements LexicalHandler {
+
+		private final boolean expandURLs;
+
+		private final Vector plist = new Vector();
+
+		private final StringBuffer text = new StringBuffer();
+
+		private int depth;
+
+		private int skippedDepth = -1;
+
+		private boolean inCDATA;
+
+		private Paragraph paragraph;
+
+		private String segmentTag;
+
+		private Attributes segmentAttributes;
+
+		/*
+		 * The texts (String) and images (Attributes) in a segment.
+		 */
+		private Vector segmentChildren;
+
+		ParseHandler(boolean expandURLs) {
+			this.expandURLs = expandURLs;
+		}
+
+		Vector getParagraphs() {
+			return plist;
+		}
+
+		public void startElement(String uri, String localName, String qName,
+				Attributes atts) {
+			flushText();
+			depth++;
+			if (skippedDepth != -1)
+				return;
+			String name = qName.length() > 0 ? qName : localName;
+			switch (depth) {
+			case 1:
+				// root element
+				break;
+			case 2:
+				String tag = name.toLowerCase();
+				if (tag.equals("p")) { //$NON-NLS-1$
+					paragraph = processParagraph(atts);
+				} else if (tag.equals("li")) { //$NON-NLS-1$
+					paragraph = processListItem(atts);
+				} else {
+					skippedDepth = depth;
+				}
+				break;
+			case 3:
+				if (name.equalsIgnoreCase("a") //$NON-NLS-1$
+						|| name.equalsIgnoreCase("span") //$NON-NLS-1$
+						|| name.equalsIgnoreCase("b")) { //$NON-NLS-1$
+					segmentTag = name;
+					segmentAttributes = new AttributesImpl(atts);
+					segmentChildren = new Vector();
+					break;
+				}
+				if (name.equalsIgnoreCase("img")) { //$NON-NLS-1$
+					paragraph.addSegment(processImageSegment(atts));
+				} else if (name.equalsIgnoreCase("br")) { //$NON-NLS-1$
+					paragraph.addSegment(new BreakSegment());
+				} else if (name.equalsIgnoreCase("control")) { //$NON-NLS-1$
+					paragraph.addSegment(processControlSegment(atts));
+				}
+				skippedDepth = depth;
+				break;
+			default:
+				if (segmentTag.equalsIgnoreCase("a") //$NON-NLS-1$
+						&& name.equalsIgnoreCase("img")) { //$NON-NLS-1$
+					segmentChildren.add(new AttributesImpl(atts));
+				}
+				skippedDepth = depth;
+			}
+		}
+
+		public void endElement(String uri, String localName, String qName) {
+			flushText();
+			if (skippedDepth == depth) {
+				skippedDepth = -1;
+			} else if (skippedDepth == -1) {
+				if (depth == 2) {
+					plist.add(paragraph);
+					paragraph = null;
+				} else if (depth == 3) {
+					processSegment(paragraph, segmentTag, segmentAttributes,
+							segmentChildren, expandURLs);
+					segmentTag = null;
+					segmentAttributes = null;
+					segmentChildren = null;
+				}
+			}
+			depth--;
+		}
+
+		public void characters(char[] ch, int start, int length) {
+			if (skippedDepth == -1 && !inCDATA)
+				text.append(ch, start, length);
+		}
 
-	private void processSubnodes(Vector plist, NodeList children, boolean expandURLs) {
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
-			if (child.getNodeType() == Node.TEXT_NODE) {
+		public void processingInstruction(String target, String data) {
+			flushText();
+		}
+
+		private void flushText() {
+			if (text.length() == 0)
+				return;
+			String value = text.toString();
+			text.setLength(0);
+			switch (depth) {
+			case 1:
 				// Make an implicit paragraph
-				String text = getSingleNodeText(child);
-				if (text != null && !isIgnorableWhiteSpace(text, true)) {
+				String implicitText = getNormalizedText(value);
+				if (!isIgnorableWhiteSpace(implicitText, true)) {
 					Paragraph p = new Paragraph(true);
-					p.parseRegularText(text, expandURLs, true,
+					p.parseRegularText(implicitText, expandURLs, true,
 							getHyperlinkSettings(), null);
 					plist.add(p);
 				}
-			} else if (child.getNodeType() == Node.ELEMENT_NODE) {
-				String tag = child.getNodeName().toLowerCase();
-				if (tag.equals("p")) { //$NON-NLS-1$
-					Paragraph p = processParagraph(child, expandURLs);
-					if (p != null)
-						plist.add(p);
-				} else if (tag.equals("li")) { //$NON-NLS-1$
-					Paragraph p = processListItem(child, expandURLs);
-					if (p != null)
-						plist.add(p);
+				break;
+			case 2:
+				String paragraphText = getNormalizedText(value);
+				if (!isIgnorableWhiteSpace(paragraphText, false)) {
+					paragraph.parseRegularText(paragraphText, expandURLs,
+							true, getHyperlinkSettings(), null);
 				}
+				break;
+			case 3:
+				segmentChildren.add(value);
+				break;
 			}
 		}
+
+		public void startCDATA() {
+			flushText();
+			inCDATA = true;
+		}
+
+		public void endCDATA() {
+			inCDATA = false;
+		}
+
+		public void comment(char[] ch, int start, int length) {
+		}
+
+		public void startDTD(String name, String publicId, String systemId) {
+		}
+
+		public void endDTD() {
+		}
+
+		public void startEntity(String name) {
+		}
+
+		public void endEntity(String name) {
+		}
+
+		public void error(SAXParseException e) {
+		}
+
+		public void fatalError(SAXParseException e) {
+		}
+
+		public void warning(SAXParseException e) {
+		}
 	}
 
-	private Paragraph processParagraph(Node paragraph, boolean expandURLs) {
-		NodeList children = paragraph.getChildNodes();
-		NamedNodeMap atts = paragraph.getAttributes();
-		Node addSpaceAtt = atts.getNamedItem("addVerticalSpace"); //$NON-NLS-1$
+	private Paragraph processParagraph(Attributes atts) {
+		String addSpaceAtt = atts.getValue("addVerticalSpace"); //$NON-NLS-1$
 		boolean addSpace = true;
 
 		if (addSpaceAtt == null)
-			addSpaceAtt = atts.getNamedItem("vspace"); //$NON-NLS-1$
+			addSpaceAtt = atts.getValue("vspace"); //$NON-NLS-1$
 
 		if (addSpaceAtt != null) {
-			String value = addSpaceAtt.getNodeValue();
-			addSpace = value.equalsIgnoreCase("true"); //$NON-NLS-1$
+			addSpace = addSpaceAtt.equalsIgnoreCase("true"); //$NON-NLS-1$
 		}
-		Paragraph p = new Paragraph(addSpace);
-
-		processSegments(p, children, expandURLs);
-		return p;
+		return new Paragraph(addSpace);
 	}
 
-	private Paragraph processListItem(Node listItem, boolean expandURLs) {
-		NodeList children = listItem.getChildNodes();
-		NamedNodeMap atts = listItem.getAttributes();
-		Node addSpaceAtt = atts.getNamedItem("addVerticalSpace");//$NON-NLS-1$
-		Node styleAtt = atts.getNamedItem("style");//$NON-NLS-1$
-		Node valueAtt = atts.getNamedItem("value");//$NON-NLS-1$
-		Node indentAtt = atts.getNamedItem("indent");//$NON-NLS-1$
-		Node bindentAtt = atts.getNamedItem("bindent");//$NON-NLS-1$
+	private Paragraph processListItem(Attributes atts) {
+		String addSpaceAtt = atts.getValue("addVerticalSpace");//$NON-NLS-1$
+		String styleAtt = atts.getValue("style");//$NON-NLS-1$
+		String valueAtt = atts.getValue("value");//$NON-NLS-1$
+		String indentAtt = atts.getValue("indent");//$NON-NLS-1$
+		String bindentAtt = atts.getValue("bindent");//$NON-NLS-1$
 		int style = BulletParagraph.CIRCLE;
 		int indent = -1;
 		int bindent = -1;
@@ -203,35 +331,31 @@ public class FormTextModel {
 		boolean addSpace = true;
 
 		if (addSpaceAtt != null) {
-			String value = addSpaceAtt.getNodeValue();
-			addSpace = value.equalsIgnoreCase("true"); //$NON-NLS-1$
+			addSpace = addSpaceAtt.equalsIgnoreCase("true"); //$NON-NLS-1$
 		}
 		if (styleAtt != null) {
-			String value = styleAtt.getNodeValue();
-			if (value.equalsIgnoreCase("text")) { //$NON-NLS-1$
+			if (styleAtt.equalsIgnoreCase("text")) { //$NON-NLS-1$
 				style = BulletParagraph.TEXT;
-			} else if (value.equalsIgnoreCase("image")) { //$NON-NLS-1$
+			} else if (styleAtt.equalsIgnoreCase("image")) { //$NON-NLS-1$
 				style = BulletParagraph.IMAGE;
-			} else if (value.equalsIgnoreCase("bullet")) { //$NON-NLS-1$
+			} else if (styleAtt.equalsIgnoreCase("bullet")) { //$NON-NLS-1$
 				style = BulletParagraph.CIRCLE;
 			}
 		}
 		if (valueAtt != null) {
-			text = valueAtt.getNodeValue();
+			text = valueAtt;
 			if (style == BulletParagraph.IMAGE)
 				text = "i." + text; //$NON-NLS-1$
 		}
 		if (indentAtt != null) {
-			String value = indentAtt.getNodeValue();
 			try {
-				indent = Integer.parseInt(value);
+				indent = Integer.parseInt(indentAtt);
 			} catch (NumberFormatException e) {
 			}
 		}
 		if (bindentAtt != null) {
-			String value = bindentAtt.getNodeValue();
 			try {
-				bindent = Integer.parseInt(value);
+				bindent = Integer.parseInt(bindentAtt);
 			} catch (NumberFormatException e) {
 			}
 		}
@@ -241,47 +365,21 @@ public class FormTextModel {
 		p.setBulletIndent(bindent);
 		p.setBulletStyle(style);
 		p.setBulletText(text);
-
-		processSegments(p, children, expandURLs);
 		return p;
 	}
 
-	private void processSegments(Paragraph p, NodeList children,
-			boolean expandURLs) {
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
-			ParagraphSegment segment = null;
-
-			if (child.getNodeType() == Node.TEXT_NODE) {
-				String value = getSingleNodeText(child);
-
-				if (value != null && !isIgnorableWhiteSpace(value, false)) {
-					p.parseRegularText(value, expandURLs, true,
-							getHyperlinkSettings(), null);
-				}
-			} else if (child.getNodeType() == Node.ELEMENT_NODE) {
-				String name = child.getNodeName();
-				if (name.equalsIgnoreCase("img")) { //$NON-NLS-1$
-					segment = processImageSegment(child);
-				} else if (name.equalsIgnoreCase("a")) { //$NON-NLS-1$
-					segment = processHyperlinkSegment(child,
-							getHyperlinkSettings());
-				} else if (name.equalsIgnoreCase("span")) { //$NON-NLS-1$
-					processTextSegment(p, expandURLs, child);
-				} else if (name.equalsIgnoreCase("b")) { //$NON-NLS-1$
-					String text = getNodeText(child);
-					String fontId = BOLD_FONT_ID;
-					p.parseRegularText(text, expandURLs, true,
-							getHyperlinkSettings(), fontId);
-				} else if (name.equalsIgnoreCase("br")) { //$NON-NLS-1$
-					segment = new BreakSegment();
-				} else if (name.equalsIgnoreCase("control")) { //$NON-NLS-1$
-					segment = processControlSegment(child);
-				}
-			}
-			if (segment != null) {
-				p.addSegment(segment);
-			}
+	private void processSegment(Paragraph p, String name, Attributes atts,
+			Vector children, boolean expandURLs) {
+		if (name.equalsIgnoreCase("a")) { //$NON-NLS-1$
+			p.addSegment(processHyperlinkSegment(atts, children,
+					getHyperlinkSettings()));
+		} else if (name.equalsIgnoreCase("span")) { //$NON-NLS-1$
+			processTextSegment(p, expandURLs, atts, children);
+		} else if (name.equalsIgnoreCase("b")) { //$NON-NLS-1$
+			String text = getNodeText(children);
+			String fontId = BOLD_FONT_ID;
+			p.parseRegularText(text, expandURLs, true,
+					getHyperlinkSettings(), fontId);
 		}
 	}
 
@@ -297,32 +395,29 @@ public class FormTextModel {
 		return true;
 	}
 
-	private ImageSegment processImageSegment(Node image) {
+	private ImageSegment processImageSegment(Attributes atts) {
 		ImageSegment segment = new ImageSegment();
-		processObjectSegment(segment, image, "i."); //$NON-NLS-1$
+		processObjectSegment(segment, atts, "i."); //$NON-NLS-1$
 		return segment;
 	}
 
-	private ControlSegment processControlSegment(Node control) {
+	private ControlSegment processControlSegment(Attributes atts) {
 		ControlSegment segment = new ControlSegment();
-		processObjectSegment(segment, control, "o."); //$NON-NLS-1$
-		Node fill = control.getAttributes().getNamedItem("fill"); //$NON-NLS-1$
+		processObjectSegment(segment, atts, "o."); //$NON-NLS-1$
+		String fill = atts.getValue("fill"); //$NON-NLS-1$
 		if (fill!=null) {
-			String value = fill.getNodeValue();
-			boolean doFill = value.equalsIgnoreCase("true"); //$NON-NLS-1$
+			boolean doFill = fill.equalsIgnoreCase("true"); //$NON-NLS-1$
 			segment.setFill(doFill);
 		}
 		try {
-			Node width = control.getAttributes().getNamedItem("width"); //$NON-NLS-1$
+			String width = atts.getValue("width"); //$NON-NLS-1$
 			if (width!=null) {
-				String value = width.getNodeValue();
-				int doWidth = Integer.parseInt(value);
+				int doWidth = Integer.parseInt(width);
 				segment.setWidth(doWidth);
 			}
-			Node height = control.getAttributes().getNamedItem("height"); //$NON-NLS-1$
+			String height = atts.getValue("height"); //$NON-NLS-1$
 			if (height!=null) {
-				String value = height.getNodeValue();
-				int doHeight = Integer.parseInt(value);
+				int doHeight = Integer.parseInt(height);
 				segment.setHeight(doHeight);
 			}
 		}
@@ -332,16 +427,14 @@ public class FormTextModel {
 		return segment;
 	}
 
-	private void processObjectSegment(ObjectSegment segment, Node object, String prefix) {
-		NamedNodeMap atts = object.getAttributes();
-		Node id = atts.getNamedItem("href"); //$NON-NLS-1$
-		Node align = atts.getNamedItem("align"); //$NON-NLS-1$
+	private void processObjectSegment(ObjectSegment segment, Attributes atts, String prefix) {
+		String id = atts.getValue("href"); //$NON-NLS-1$
+		String align = atts.getValue("align"); //$NON-NLS-1$
 		if (id != null) {
-			String value = id.getNodeValue();
-			segment.setObjectId(prefix + value);
+			segment.setObjectId(prefix + id);
 		}
 		if (align != null) {
-			String value = align.getNodeValue().toLowerCase();
+			String value = align.toLowerCase();
 			if (value.equals("top")) //$NON-NLS-1$
 				segment.setVerticalAlignment(ImageSegment.TOP);
 			else if (value.equals("middle")) //$NON-NLS-1$
@@ -386,58 +479,51 @@ public class FormTextModel {
 		return buf.toString();
 	}
 
-	private String getSingleNodeText(Node node) {
-		return getNormalizedText(node.getNodeValue());
-	}
-
-	private String getNodeText(Node node) {
-		NodeList children = node.getChildNodes();
+	private String getNodeText(Vector children) {
 		StringBuffer buf = new StringBuffer();
 		int[] spaceCounter = new int[1];
 
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
-			if (child.getNodeType() == Node.TEXT_NODE) {
-				String value = child.getNodeValue();
+		for (int i = 0; i < children.size(); i++) {
+			Object child = children.get(i);
+			if (child instanceof String) {
+				String value = (String) child;
 				appendText(value, buf, spaceCounter);
 			}
 		}
 		return buf.toString().trim();
 	}
 
-	private ParagraphSegment processHyperlinkSegment(Node link,
-			HyperlinkSettings settings) {
-		NamedNodeMap atts = link.getAttributes();
+	private ParagraphSegment processHyperlinkSegment(Attributes atts,
+			Vector children, HyperlinkSettings settings) {
 		String href = null;
 		boolean wrapAllowed = true;
 		String boldFontId = null;
 
-		Node hrefAtt = atts.getNamedItem("href"); //$NON-NLS-1$
+		String hrefAtt = atts.getValue("href"); //$NON-NLS-1$
 		if (hrefAtt != null) {
-			href = hrefAtt.getNodeValue();
+			href = hrefAtt;
 		}
-		Node boldAtt = atts.getNamedItem("bold"); //$NON-NLS-1$
+		String boldAtt = atts.getValue("bold"); //$NON-NLS-1$
 		if (boldAtt != null) {
 			boldFontId = BOLD_FONT_ID;
 		}
-		Node nowrap = atts.getNamedItem("nowrap"); //$NON-NLS-1$
+		String nowrap = atts.getValue("nowrap"); //$NON-NLS-1$
 		if (nowrap != null) {
-			String value = nowrap.getNodeValue();
-			if (value != null && value.equalsIgnoreCase("true")) //$NON-NLS-1$
+			if (nowrap.equalsIgnoreCase("true")) //$NON-NLS-1$
 				wrapAllowed = false;
 		}
-		Object status = checkChildren(link);
-		if (status instanceof Node) {
-			Node child = (Node)status;
+		Object status = checkChildren(children);
+		if (status instanceof Attributes) {
+			Attributes child = (Attributes)status;
 			ImageHyperlinkSegment segment = new ImageHyperlinkSegment();
 			segment.setHref(href);
 			segment.setWordWrapAllowed(wrapAllowed);
-			Node alt = child.getAttributes().getNamedItem("alt"); //$NON-NLS-1$
+			String alt = child.getValue("alt"); //$NON-NLS-1$
 			if (alt!=null)
-				segment.setTooltipText(alt.getNodeValue());
-			Node text = child.getAttributes().getNamedItem("text"); //$NON-NLS-1$
+				segment.setTooltipText(alt);
+			String text = child.getValue("text"); //$NON-NLS-1$
 			if (text!=null)
-				segment.setText(text.getNodeValue());
+				segment.setText(text);
 			processObjectSegment(segment, child, "i."); //$NON-NLS-1$
 			return segment;
 		}  else if (status instanceof String) {
@@ -446,86 +532,78 @@ public class FormTextModel {
 					settings, null);
 			segment.setHref(href);
 			segment.setFontId(boldFontId);
-			Node alt = atts.getNamedItem("alt"); //$NON-NLS-1$
+			String alt = atts.getValue("alt"); //$NON-NLS-1$
 			if (alt!=null)
-				segment.setTooltipText(alt.getNodeValue());			
+				segment.setTooltipText(alt);			
 			segment.setWordWrapAllowed(wrapAllowed);
 			return segment;
 		} else {
 			AggregateHyperlinkSegment parent = new AggregateHyperlinkSegment();
 			parent.setHref(href);
-			NodeList children = link.getChildNodes();
-			for (int i = 0; i < children.getLength(); i++) {
-				Node child = children.item(i);
-				if (child.getNodeType() == Node.TEXT_NODE) {
-					String value = child.getNodeValue();
+			for (int i = 0; i < children.size(); i++) {
+				Object child = children.get(i);
+				if (child instanceof String) {
+					String value = (String) child;
 					TextHyperlinkSegment ts = new TextHyperlinkSegment(
 							getNormalizedText(value), settings, null);
-					Node alt = atts.getNamedItem("alt"); //$NON-NLS-1$
+					String alt = atts.getValue("alt"); //$NON-NLS-1$
 					if (alt!=null)
-						ts.setTooltipText(alt.getNodeValue());
+						ts.setTooltipText(alt);
 					ts.setWordWrapAllowed(wrapAllowed);
 					parent.add(ts);
-				} else if (child.getNodeType() == Node.ELEMENT_NODE) {
-					String name = child.getNodeName();
-					if (name.equalsIgnoreCase("img")) { //$NON-NLS-1$
-						ImageHyperlinkSegment is = new ImageHyperlinkSegment();
-						processObjectSegment(is, child, "i."); //$NON-NLS-1$
-						Node alt = child.getAttributes().getNamedItem("alt"); //$NON-NLS-1$
-						if (alt!=null)
-							is.setTooltipText(alt.getNodeValue());
-						parent.add(is);
-						is.setWordWrapAllowed(wrapAllowed);
-					}
+				} else {
+					Attributes imgAtts = (Attributes) child;
+					ImageHyperlinkSegment is = new ImageHyperlinkSegment();
+					processObjectSegment(is, imgAtts, "i."); //$NON-NLS-1$
+					String alt = imgAtts.getValue("alt"); //$NON-NLS-1$
+					if (alt!=null)
+						is.setTooltipText(alt);
+					parent.add(is);
+					is.setWordWrapAllowed(wrapAllowed);
 				}
 			}
 			return parent;
 		}
 	}
 
-	private Object checkChildren(Node node) {
+	private Object checkChildren(Vector children) {
 		boolean text = false;
-		Node imgNode = null;
+		Attributes imgAtts = null;
 		//int status = 0;
 
-		NodeList children = node.getChildNodes();
-		for (int i = 0; i < children.getLength(); i++) {
-			Node child = children.item(i);
-			if (child.getNodeType() == Node.TEXT_NODE)
+		for (int i = 0; i < children.size(); i++) {
+			Object child = children.get(i);
+			if (child instanceof String)
 				text = true;
-			else if (child.getNodeType() == Node.ELEMENT_NODE
-					&& child.getNodeName().equalsIgnoreCase("img")) { //$NON-NLS-1$
-				imgNode = child;
-			}
+			else
+				imgAtts = (Attributes) child;
 		}
-		if (text && imgNode == null)
-			return getNodeText(node);
-		else if (!text && imgNode != null)
-			return imgNode;
+		if (text && imgAtts == null)
+			return getNodeText(children);
+		else if (!text && imgAtts != null)
+			return imgAtts;
 		else return null;
 	}
 
 	private void processTextSegment(Paragraph p, boolean expandURLs,
-			Node textNode) {
-		String text = getNodeText(textNode);
+			Attributes atts, Vector children) {
+		String text = getNodeText(children);
 
-		NamedNodeMap atts = textNode.getAttributes();
-		Node font = atts.getNamedItem("font"); //$NON-NLS-1$
-		Node color = atts.getNamedItem("color"); //$NON-NLS-1$
+		String font = atts.getValue("font"); //$NON-NLS-1$
+		String color = atts.getValue("color"); //$NON-NLS-1$
 		boolean wrapAllowed=true;
-		Node nowrap = atts.getNamedItem("nowrap"); //$NON-NLS-1$
+		String nowrap = atts.getValue("nowrap"); //$NON-NLS-1$
 		if (nowrap != null) {
-			String value = nowrap.getNodeValue();
-			if (value != null && value.equalsIgnoreCase("true")) //$NON-NLS-1$
+			if (nowrap.equalsIgnoreCase("true")) //$NON-NLS-1$
 				wrapAllowed = false;
 		}
 		String fontId = null;
 		String colorId = null;
 		if (font != null) {
-			fontId = "f." + font.getNodeValue(); //$NON-NLS-1$
+			fontId = "f." + font; //$NON-NLS-1$
 		}
 		if (color != null) {
-			colorId = "c." + color.getNodeValue(); //$NON-NLS-1$
+			colorId = "c." + color; //$NON-NLS-1$
 		}
 		p.parseRegularText(text, expandURLs, wrapAllowed, getHyperlinkSettings(), fontId,
 				colorId);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -45,11 +45,19 @@ public class TextSegment extends ParagraphSegment {
 
 	private TextFragment[] textFragments;
 
+	/**
+	 * The extent of the whole text in the segment font, or <code>null</code>
+	 * if not computed yet. Cleared together with <code>textFragments</code>.
+	 */
+	private Point textExtent;
+
 	class AreaRectangle {
 		Rectangle rect;
 
 		int from, to;
 
+		int textWidth = -1;
+
 		public AreaRectangle(Rectangle rect, int from, int to) {
 			this.rect = rect;
 			this.from = from;
@@ -71,6 +79,16 @@ public class TextSegment extends ParagraphSegment {
 				return TextSegment.this.getText().substring(from);
 			return TextSegment.this.getText().substring(from, to);
 		}
+
+		/**
+		 * Returns the width of the text of this area. The areas are recreated
+		 * on each layout, so the width is measured once per layout.
+		 */
+		public int getTextWidth(GC gc) {
+			if (textWidth == -1)
+				textWidth = gc.textExtent(getText()).x;
+			return textWidth;
+		}
 	}
 
 	static class SelectionRange {
@@ -150,6 +168,7 @@ public class TextSegment extends ParagraphSegment {
 	void setText(String text) {
 		this.text = cleanup(text);
 		textFragments = null;
+		textExtent = null;
 	}
 
 	void setColorId(String colorId) {
@@ -159,6 +178,7 @@ public class TextSegment extends ParagraphSegment {
 	void setFontId(String fontId) {
 		this.fontId = fontId;
 		textFragments = null;
+		textExtent = null;
 	}
 
 	public boolean contains(int x, int y) {
@@ -233,7 +253,7 @@ public class TextSegment extends ParagraphSegment {
 		boolean newLine = false;
 
 		if (wHint == SWT.DEFAULT || !wrapAllowed) {
-			Point extent = gc.textExtent(text);
+			Point extent = getTextExtent(gc);
 			int totalExtent = locator.x+extent.x;
 			if (isSelectable())
 				totalExtent+=1;
@@ -318,7 +338,7 @@ public class TextSegment extends ParagraphSegment {
 	 */
 	private void layoutWithoutWrapping(GC gc, int width, Locator locator,
 			boolean selected, FontMetrics fm, int lineHeight, int descent) {
-		Point extent = gc.textExtent(text);
+		Point extent = getTextExtent(gc);
 		int ewidth = extent.x;
 		if (isSelectable())
 			ewidth += 1;
@@ -411,10 +431,10 @@ public class TextSegment extends ParagraphSegment {
 			AreaRectangle areaRectangle = (AreaRectangle) areaRectangles.get(i);
 			Rectangle rect = areaRectangle.rect;
 			String text = areaRectangle.getText();
-			Point extent = gc.textExtent(text);
+			int textWidth = areaRectangle.getTextWidth(gc);
 			int textX = rect.x + (isSelectable()?1:0);
 			int lineY = rect.y + lineHeight - descent + 1;
-			paintString(gc, text, extent.x, textX, rect.y, lineY, selData,
+			paintString(gc, text, textWidth, textX, rect.y, lineY, selData,
 					rect, hover, rollover, repaintRegion);
 			if (selected) {
 				int fx = rect.x;
@@ -458,9 +478,8 @@ public class TextSegment extends ParagraphSegment {
 			AreaRectangle areaRectangle = (AreaRectangle) areaRectangles.get(i);
 			Rectangle rect = areaRectangle.rect;
 			String text = areaRectangle.getText();
-			Point extent = gc.textExtent(text);
-			computeSelection(gc, text, extent.x, selData,
-					rect);
+			computeSelection(gc, text, areaRectangle.getTextWidth(gc),
+					selData, rect);
 		}
 		// restore GC resources
 		if (oldFont != null) {
@@ -702,6 +721,16 @@ public class TextSegment extends ParagraphSegment {
 		}
 	}
 
+	/**
+	 * Returns the extent of the whole text, measuring it with the current font
+	 * of the given GC only the first time.
+	 */
+	private Point getTextExtent(GC gc) {
+		if (textExtent == null)
+			textExtent = gc.textExtent(text);
+		return textExtent;
+	}
+
 	private void computeTextFragments(GC gc) {
 		if (textFragments != null)
 			return;
@@ -722,9 +751,12 @@ public class TextSegment extends ParagraphSegment {
 	}
 	
 	public void clearCache(String fontId) {
-		if (fontId==null && (this.fontId==null||this.fontId.equals(FormTextModel.BOLD_FONT_ID)))
+		if (fontId==null && (this.fontId==null||this.fontId.equals(FormTextModel.BOLD_FONT_ID))) {
 			textFragments = null;
-		else if (fontId!=null && this.fontId!=null && fontId.equals(this.fontId))
+			textExtent = null;
+		} else if (fontId!=null && this.fontId!=null && fontId.equals(this.fontId)) {
 			textFragments = null;
+			textExtent = null;
+		}
 	}
 }
@@ -16,7 +16,9 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 
 import org.eclipse.core.resources.IContainer;
@@ -69,6 +71,7 @@ import org.eclipse.ui.internal.WorkbenchPlugin;
 import org.eclipse.ui.internal.ide.IDEWorkbenchMessages;
 import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
 import org.eclipse.ui.internal.ide.IIDEHelpContextIds;
+import org.eclipse.ui.internal.ide.dialogs.ResourceIndex;
 import org.eclipse.ui.internal.ide.model.ResourceFactory;
 import org.eclipse.ui.model.WorkbenchLabelProvider;
 import org.eclipse.ui.statushandlers.StatusManager;
@@ -176,6 +179,11 @@ public class FilteredResourcesSelectionDialog extends
 		this.container = container;
 		this.typeMask = typesMask;
 
+		if (useResourceIndex()) {
+			// start indexing while the user is typing the pattern
+			ResourceIndex.getInstance().schedule();
+		}
+
 		resourceItemLabelProvider = new ResourceItemLabelProvider();
 
 		resourceItemDetailsLabelProvider = new ResourceItemDetailsLabelProvider();
@@ -563,6 +571,13 @@ public class FilteredResourcesSelectionDialog extends
 			ItemsFilter itemsFilter, IProgressMonitor progressMonitor)
 			throws CoreException {
 		if (itemsFilter instanceof ResourceFilter) {
+			if (useResourceIndex()
+					&& fillFromResourceIndex(contentProvider,
+							(ResourceFilter) itemsFilter, progressMonitor)) {
+				progressMonitor.done();
+				return;
+			}
+
 			IResource[] members = container.members();
 			progressMonitor
 					.beginTask(
@@ -588,6 +603,57 @@ public class FilteredResourcesSelectionDialog extends
 		progressMonitor.done();
 	}
 
+	/**
+	 * Returns whether the dialog searches the whole workspace and can
+	 * therefore use the shared {@link ResourceIndex} instead of walking the
+	 * resource tree.
+	 */
+	private boolean useResourceIndex() {
+		return container != null
+				&& container.getType() == IResource.ROOT;
+	}
+
+	/**
+	 * Adds the matching resources of the shared {@link ResourceIndex} to the
+	 * content provider. The index holds all visible resources, so members of
+	 * derived folders, which the resource tree walk prunes, are skipped here.
+	 * So are entries that became hidden or team private after they were
+	 * indexed. Entries that no longer exist are removed from the index.
+	 * 
+	 * @return <code>true</code> if the index was used, <code>false</code> if
+	 *         it is not available and the resource tree has to be walked
+	 */
+	private boolean fillFromResourceIndex(
+			AbstractContentProvider contentProvider,
+			ResourceFilter resourceFilter, IProgressMonitor progressMonitor) {
+		ResourceIndex index = ResourceIndex.getInstance();
+		Collection resources = index.getResources(progressMonitor);
+		if (resources == null) {
+			return false;
+		}
+		progressMonitor.beginTask(
+				WorkbenchMessages.FilteredItemsSelectionDialog_searchJob_taskName,
+				resources.size() / 1000 + 1);
+		int i = 0;
+		for (Iterator it = resources.iterator(); it.hasNext(); i++) {
+			IResource resource = (IResource) it.next();
+			if (!resource.exists()) {
+				index.prune(resource);
+			} else if (resourceFilter.matchItem(resource)
+					&& !ResourceIndex.isExcluded(resource)
+					&& (resourceFilter.isShowDerived() || !resource.getParent()
+							.isDerived(IResource.CHECK_ANCESTORS))) {
+				contentProvider.add(resource, resourceFilter);
+			}
+			if (i % 1000 == 0) {
+				progressMonitor.worked(1);
+				if (progressMonitor.isCanceled())
+					break;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Sets the derived flag on the ResourceFilter instance
 	 */
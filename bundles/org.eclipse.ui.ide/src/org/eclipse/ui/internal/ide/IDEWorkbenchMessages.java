@@ -750,6 +750,8 @@ public class IDEWorkbenchMessages extends NLS {
 	public static String MarkerDeleteHandler_JobMessageLabel;
 	
 	public static String FilteredResourcesSelectionDialog_showDerivedResourcesAction;
+	public static String ResourceIndex_buildJobName;
+	public static String ResourceIndex_disposeJobName;
 	
 	public static String ResourceSelectionDialog_label;
 	public static String ResourceSelectionDialog_matching;
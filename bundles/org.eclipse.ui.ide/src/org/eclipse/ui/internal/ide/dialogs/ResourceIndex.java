@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.ide.dialogs;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.ui.internal.ide.IDEWorkbenchMessages;
+import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
+
+/**
+ * An in-memory index of all resources of the workspace that are visible to
+ * the <code>FilteredResourcesSelectionDialog</code>. The index is built in a
+ * background job when a dialog first asks for it, and afterwards kept up to
+ * date from resource deltas, so that searching for resources does not have to
+ * walk the whole resource tree each time the dialog is opened. An index that
+ * has not been used for {@link #IDLE_TIMEOUT} milliseconds is disposed, and
+ * built again when it is needed.
+ * <p>
+ * The index is a cache: clients have to check that a returned resource still
+ * exists and is still visible before presenting it, and should
+ * {@link #prune(IResource) prune} entries that no longer exist.
+ * </p>
+ */
+public class ResourceIndex implements IResourceChangeListener {
+
+	/**
+	 * The time, in milliseconds, after which an unused index is disposed.
+	 */
+	private static final long IDLE_TIMEOUT = 10 * 60 * 1000;
+
+	private static ResourceIndex instance;
+
+	/**
+	 * The indexed resources. The set is concurrent, so that searches can
+	 * iterate over it while it is updated from resource deltas.
+	 */
+	private final Set resources = Collections
+			.newSetFromMap(new ConcurrentHashMap());
+
+	/**
+	 * Whether the initial walk of the workspace has completed. Written while
+	 * holding <code>this</code>.
+	 */
+	private volatile boolean built;
+
+	private final IWorkspace workspace;
+
+	private final Job buildJob;
+
+	private final Job disposeJob;
+
+	/**
+	 * Returns the shared index, creating it if necessary. Creating the index
+	 * does not build it, see {@link #schedule()}.
+	 *
+	 * @return the shared index
+	 */
+	public static synchronized ResourceIndex getInstance() {
+		if (instance == null) {
+			instance = new ResourceIndex(ResourcesPlugin.getWorkspace());
+		}
+		return instance;
+	}
+
+	/**
+	 * Disposes the shared index, if it was created.
+	 */
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			instance.dispose();
+			instance = null;
+		}
+	}
+
+	/**
+	 * Disposes the given index if it is still the shared one.
+	 */
+	private static synchronized void shutdown(ResourceIndex index) {
+		if (instance == index) {
+			shutdown();
+		}
+	}
+
+	private ResourceIndex(IWorkspace workspace) {
+		this.workspace = workspace;
+		this.buildJob = new Job(IDEWorkbenchMessages.ResourceIndex_buildJobName) {
+			protected IStatus run(IProgressMonitor monitor) {
+				return build(monitor);
+			}
+		};
+		buildJob.setSystem(true);
+		buildJob.setPriority(Job.DECORATE);
+		this.disposeJob = new Job(
+				IDEWorkbenchMessages.ResourceIndex_disposeJobName) {
+			protected IStatus run(IProgressMonitor monitor) {
+				shutdown(ResourceIndex.this);
+				return Status.OK_STATUS;
+			}
+		};
+		disposeJob.setSystem(true);
+		workspace.addResourceChangeListener(this,
+				IResourceChangeEvent.POST_CHANGE);
+	}
+
+	private void dispose() {
+		buildJob.cancel();
+		disposeJob.cancel();
+		workspace.removeResourceChangeListener(this);
+		synchronized (this) {
+			resources.clear();
+			built = false;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Starts building the index in the background, unless it is already built
+	 * or being built.
+	 */
+	public void schedule() {
+		used();
+		synchronized (this) {
+			if (built) {
+				return;
+			}
+		}
+		if (buildJob.getState() == Job.NONE) {
+			buildJob.schedule();
+		}
+	}
+
+	/**
+	 * Returns the indexed resources, waiting for the index to be built if
+	 * necessary. The returned collection is a read-only view of the index, not
+	 * a copy: iterating over it is safe while the index is updated, but the
+	 * iteration may or may not reflect concurrent changes.
+	 *
+	 * @param monitor
+	 *            the monitor used to cancel waiting for the index
+	 * @return the indexed resources, or <code>null</code> if the index could
+	 *         not be built or waiting for it was canceled
+	 */
+	public Collection getResources(IProgressMonitor monitor) {
+		schedule();
+		synchronized (this) {
+			while (!built) {
+				if (monitor.isCanceled() || buildJob.getState() == Job.NONE) {
+					return null;
+				}
+				try {
+					wait(100);
+				} catch (InterruptedException e) {
+					return null;
+				}
+			}
+		}
+		return Collections.unmodifiableSet(resources);
+	}
+
+	/**
+	 * Postpones disposing the index until it has been idle for
+	 * {@link #IDLE_TIMEOUT} milliseconds.
+	 */
+	private void used() {
+		// rescheduling a sleeping job restarts its delay
+		disposeJob.schedule(IDLE_TIMEOUT);
+	}
+
+	/**
+	 * Removes the given resource from the index if it no longer exists. A
+	 * resource that exists is kept, as is one that is created again while it
+	 * is being pruned.
+	 *
+	 * @param resource
+	 *            the resource to remove if it does not exist
+	 */
+	public void prune(IResource resource) {
+		synchronized (this) {
+			// deltas are applied while holding this, so a resource created
+			// after the check is added back by its delta
+			if (!resource.exists()) {
+				resources.remove(resource);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the given resource is one the index skips: hidden and
+	 * team private resources and their members. Clients use this to drop
+	 * entries whose flags changed after they were indexed.
+	 *
+	 * @param resource
+	 *            the resource to check
+	 * @return <code>true</code> if the resource is hidden or team private, or
+	 *         a member of such a resource
+	 */
+	public static boolean isExcluded(IResource resource) {
+		return resource.isHidden(IResource.CHECK_ANCESTORS)
+				|| resource.isTeamPrivateMember(IResource.CHECK_ANCESTORS);
+	}
+
+	private IStatus build(IProgressMonitor monitor) {
+		IProject[] projects = workspace.getRoot().getProjects();
+		monitor.beginTask(IDEWorkbenchMessages.ResourceIndex_buildJobName,
+				projects.length);
+		Set found = new HashSet();
+		try {
+			for (int i = 0; i < projects.length; i++) {
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				collect(projects[i], found);
+				monitor.worked(1);
+			}
+		} catch (CoreException e) {
+			IDEWorkbenchPlugin.log(e.getMessage(), e.getStatus());
+			return Status.CANCEL_STATUS;
+		} finally {
+			monitor.done();
+		}
+		synchronized (this) {
+			// entries added from deltas during the walk are already there, and
+			// resources deleted during the walk must not be added back: a
+			// deletion after this check is applied from its delta afterwards
+			for (Iterator it = found.iterator(); it.hasNext();) {
+				IResource resource = (IResource) it.next();
+				if (resource.exists()) {
+					resources.add(resource);
+				}
+			}
+			built = true;
+			notifyAll();
+		}
+		return Status.OK_STATUS;
+	}
+
+	/**
+	 * Adds the given resource and all of its visible members to the given
+	 * collection.
+	 */
+	private static void collect(IResource resource, final Collection result)
+			throws CoreException {
+		if (!resource.isAccessible()) {
+			return;
+		}
+		resource.accept(new IResourceProxyVisitor() {
+			public boolean visit(IResourceProxy proxy) {
+				result.add(proxy.requestResource());
+				return proxy.getType() != IResource.FILE;
+			}
+		}, IResource.NONE);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.core.resources.IResourceChangeListener#resourceChanged(org.eclipse.core.resources.IResourceChangeEvent)
+	 */
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		final Set added = new HashSet();
+		final Set removed = new HashSet();
+		final Set closedProjects = new HashSet();
+		final Set excluded = new HashSet();
+		try {
+			delta.accept(new IResourceDeltaVisitor() {
+				public boolean visit(IResourceDelta child) throws CoreException {
+					IResource resource = child.getResource();
+					switch (child.getKind()) {
+					case IResourceDelta.ADDED:
+						collect(resource, added);
+						return false;
+					case IResourceDelta.REMOVED:
+						removed.add(resource);
+						return true;
+					case IResourceDelta.CHANGED:
+						if (resource.getType() == IResource.PROJECT
+								&& (child.getFlags() & IResourceDelta.OPEN) != 0) {
+							if (resource.isAccessible()) {
+								collect(resource, added);
+							} else {
+								closedProjects.add(resource.getFullPath());
+							}
+							return false;
+						}
+						return visitChanged(resource, added, excluded);
+					default:
+						return true;
+					}
+				}
+			});
+		} catch (CoreException e) {
+			IDEWorkbenchPlugin.log(e.getMessage(), e.getStatus());
+		}
+
+		synchronized (this) {
+			resources.removeAll(removed);
+			if (!closedProjects.isEmpty() || !excluded.isEmpty()) {
+				for (Iterator it = resources.iterator(); it.hasNext();) {
+					IPath path = ((IResource) it.next()).getFullPath();
+					if (closedProjects.contains(path.uptoSegment(1))
+							|| isInside(path, excluded)) {
+						it.remove();
+					}
+				}
+			}
+			resources.addAll(added);
+		}
+	}
+
+	/**
+	 * Handles a changed resource. Setting the hidden or team private flag does
+	 * not always report a flag of its own, so every changed resource that the
+	 * index has already seen is checked again: one that is now hidden or team
+	 * private is dropped with its members, one that became visible again is
+	 * collected with its members.
+	 *
+	 * @return whether the members of the resource have to be visited
+	 */
+	private boolean visitChanged(IResource resource, Set added, Set excluded)
+			throws CoreException {
+		if (resource.getType() == IResource.ROOT || !built) {
+			return true;
+		}
+		boolean indexed = resources.contains(resource);
+		if (isExcluded(resource)) {
+			if (indexed) {
+				excluded.add(resource.getFullPath());
+			}
+			return false;
+		}
+		if (!indexed && resource.isAccessible()) {
+			IResource parent = resource.getParent();
+			if (parent.getType() == IResource.ROOT
+					|| resources.contains(parent)) {
+				collect(resource, added);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isInside(IPath path, Set prefixes) {
+		for (Iterator it = prefixes.iterator(); it.hasNext();) {
+			if (((IPath) it.next()).isPrefixOf(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
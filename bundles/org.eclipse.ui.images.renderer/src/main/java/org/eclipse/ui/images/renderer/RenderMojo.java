@@ -17,12 +17,19 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -66,6 +73,12 @@ public class RenderMojo extends AbstractMojo {
     /** Used to specify the number of render threads when rasterizing icons. */
     public static final String RENDERTHREADS = "eclipse.svg.renderthreads";
 
+    /**
+     * Name of the file, in the output directory, recording the source
+     * fingerprint each rendered icon was generated from.
+     */
+    public static final String MANIFEST_NAME = ".render-manifest.properties";
+
     /**
      * <p>IconEntry is used to define an icon to rasterize,
      * where to put it and the dimensions to render it at.</p>
@@ -135,6 +148,32 @@ public class RenderMojo extends AbstractMojo {
     /** Reduces contrast for disabled icons. */
     private ContrastFilter decontrast;
 
+    /** The root directory rendered icons are written to. */
+    private File outputRoot;
+
+    /** Fingerprints of the icons rendered by a previous run, keyed by output file. */
+    private Properties previousManifest;
+
+    /**
+     * Fingerprints of the icons that are up to date after this run, made safe
+     * for parallel access.
+     */
+    private Map<String, String> manifest;
+
+    /** A counter of the icons skipped because their output was up to date. */
+    private AtomicInteger skipped;
+
+    /**
+     * Each render thread reuses its own document factory, so the SVG parser
+     * is not set up again for every icon.
+     */
+    private final ThreadLocal<SAXSVGDocumentFactory> documentFactory = new ThreadLocal<SAXSVGDocumentFactory>() {
+        protected SAXSVGDocumentFactory initialValue() {
+            String parser = XMLResourceDescriptor.getXMLParserClassName();
+            return new SAXSVGDocumentFactory(parser);
+        }
+    };
+
     /**
      * @return the number of icons rendered at the time of the call
      */
@@ -149,6 +188,13 @@ public class RenderMojo extends AbstractMojo {
         return failedIcons.size();
     }
 
+    /**
+     * @return the number of icons skipped because their output was up to date
+     */
+    public int getSkippedIcons() {
+        return skipped.get();
+    }
+
     /**
      * <p>Creates an IconEntry during the icon gather operation.</p>
      * 
@@ -202,8 +248,27 @@ public class RenderMojo extends AbstractMojo {
             icon.disabledPath.mkdirs();
         }
 
+        // Read the source once, it is used both for the fingerprint and
+        // for parsing the document
+        byte[] svgSource = readIconSource(icon);
+
+        if (svgSource == null) {
+            return;
+        }
+
+        // Skip the icon if neither the source nor the output settings
+        // changed since it was last rendered
+        String manifestKey = getManifestKey(icon);
+        String fingerprint = computeFingerprint(svgSource, icon.disabledPath != null);
+
+        if (fingerprint != null && isUpToDate(icon, manifestKey, fingerprint)) {
+            skipped.incrementAndGet();
+            manifest.put(manifestKey, fingerprint);
+            return;
+        }
+
         // Create the document to rasterize
-        SVGDocument svgDocument = generateSVGDocument(icon);
+        SVGDocument svgDocument = generateSVGDocument(icon, svgSource);
 
         if(svgDocument == null) {
             return;
@@ -266,7 +331,169 @@ public class RenderMojo extends AbstractMojo {
             return;
         }
         
-        writeIcon(icon, outputWidth, outputHeight, inputImage);
+        boolean written = writeIcon(icon, outputWidth, outputHeight, inputImage);
+
+        if (written && fingerprint != null) {
+            manifest.put(manifestKey, fingerprint);
+        }
+    }
+
+    /**
+     * <p>Reads the contents of the supplied IconEntry's input file.</p>
+     * 
+     * @param icon the icon entry to read the SVG source of
+     * 
+     * @return the SVG source or null if it could not be read
+     */
+    private byte[] readIconSource(IconEntry icon) {
+        InputStream in = null;
+        try {
+            in = new FileInputStream(icon.inputPath);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(
+                    (int) icon.inputPath.length());
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            log.error("Error reading SVG icon document: " + icon.nameBase + " - " + e.getMessage());
+            failedIcons.add(icon);
+            return null;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>Computes the manifest key of an icon, the path of its rendered
+     * output relative to the output root.</p>
+     * 
+     * @param icon the icon to compute the key for
+     * 
+     * @return the manifest key of the icon
+     */
+    private String getManifestKey(IconEntry icon) {
+        File output = new File(icon.outputPath, icon.nameBase + ".png");
+        if (outputRoot == null) {
+            return output.getAbsolutePath();
+        }
+        return outputRoot.toURI().relativize(output.toURI()).getPath();
+    }
+
+    /**
+     * <p>Computes a fingerprint of everything the rendered output of an icon
+     * depends on: the SVG source, the output scale and whether a disabled
+     * variant is generated.</p>
+     * 
+     * @param svgSource the contents of the SVG document
+     * @param disabled whether a disabled variant of the icon is generated
+     * 
+     * @return the fingerprint or null if no digest is available
+     */
+    private String computeFingerprint(byte[] svgSource, boolean disabled) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+
+        byte[] hash = digest.digest(svgSource);
+        StringBuilder builder = new StringBuilder(hash.length * 2 + 8);
+        for (byte b : hash) {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16));
+            builder.append(Character.forDigit(b & 0xf, 16));
+        }
+        builder.append('@').append(outputScale).append('x');
+        if (disabled) {
+            builder.append("+d");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * <p>Determines whether the rendered output of an icon was generated from
+     * the same inputs by a previous run and still exists.</p>
+     * 
+     * @param icon the icon to check
+     * @param manifestKey the manifest key of the icon
+     * @param fingerprint the fingerprint of the icon's current inputs
+     * 
+     * @return true if the icon does not need to be rendered again
+     */
+    private boolean isUpToDate(IconEntry icon, String manifestKey, String fingerprint) {
+        if (!fingerprint.equals(previousManifest.getProperty(manifestKey))) {
+            return false;
+        }
+
+        if (!new File(icon.outputPath, icon.nameBase + ".png").isFile()) {
+            return false;
+        }
+
+        return icon.disabledPath == null
+                || new File(icon.disabledPath, icon.nameBase + ".png").isFile();
+    }
+
+    /**
+     * <p>Loads the manifest written by a previous run, if there is one.</p>
+     */
+    private void loadManifest() {
+        File manifestFile = new File(outputRoot, MANIFEST_NAME);
+        if (!manifestFile.isFile()) {
+            return;
+        }
+
+        InputStream in = null;
+        try {
+            in = new FileInputStream(manifestFile);
+            previousManifest.load(in);
+        } catch (IOException e) {
+            log.warn("Could not read render manifest, rendering all icons: " + e.getMessage());
+            previousManifest.clear();
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>Writes the fingerprints of the icons that are up to date, so the
+     * next run can skip them. Icons that failed or no longer exist are left
+     * out and get rendered again.</p>
+     */
+    private void saveManifest() {
+        Properties properties = new Properties();
+        properties.putAll(manifest);
+
+        OutputStream out = null;
+        try {
+            outputRoot.mkdirs();
+            out = new FileOutputStream(new File(outputRoot, MANIFEST_NAME));
+            properties.store(out, "Source fingerprints of the rendered icons");
+        } catch (IOException e) {
+            log.warn("Could not write render manifest: " + e.getMessage());
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
     }
 
     /**
@@ -274,18 +501,18 @@ public class RenderMojo extends AbstractMojo {
      * file.</p>
      * 
      * @param icon the icon entry to generate an SVG document for
+     * @param svgSource the contents of the icon's input file
      * 
      * @return a batik SVGDocument instance or null if one could not be generated
      */
-    private SVGDocument generateSVGDocument(IconEntry icon) {
+    private SVGDocument generateSVGDocument(IconEntry icon, byte[] svgSource) {
         // Load the document and find out the native height/width
         // We reuse the document later for rasterization
         SVGDocument svgDocument = null;
         try {
-            FileInputStream iconDocumentStream = new FileInputStream(icon.inputPath);
+            InputStream iconDocumentStream = new ByteArrayInputStream(svgSource);
 
-            String parser = XMLResourceDescriptor.getXMLParserClassName();
-            SAXSVGDocumentFactory f = new SAXSVGDocumentFactory(parser);
+            SAXSVGDocumentFactory f = documentFactory.get();
 
             // What kind of URI is batik expecting here??? the docs don't say
             svgDocument = f.createSVGDocument("file://" + icon.nameBase + ".svg", iconDocumentStream);
@@ -305,8 +532,10 @@ public class RenderMojo extends AbstractMojo {
      * @param width the desired output width after rescaling operations
      * @param height the desired output height after rescaling operations
      * @param sourceImage the source image to resource
+     * 
+     * @return true if the icon was written
      */
-    private void writeIcon(IconEntry icon, int width, int height, BufferedImage sourceImage) {
+    private boolean writeIcon(IconEntry icon, int width, int height, BufferedImage sourceImage) {
         try {
             ImageIO.write(sourceImage, "PNG", new File(icon.outputPath, icon.nameBase + ".png"));
             
@@ -318,10 +547,12 @@ public class RenderMojo extends AbstractMojo {
 
                 ImageIO.write(deconstrast, "PNG", new File(icon.disabledPath, icon.nameBase + ".png"));
             }
+            return true;
         } catch (Exception e1) {
             log.error("Failed to resize rendered icon to output size: "  + 
                                icon.nameBase + " - " + e1.getMessage());
             failedIcons.add(icon);
+            return false;
         }
     }
 
@@ -582,6 +813,9 @@ public class RenderMojo extends AbstractMojo {
         icons = new ArrayList<IconEntry>();
         execPool = Executors.newFixedThreadPool(threads);
         counter = new AtomicInteger();
+        skipped = new AtomicInteger();
+        previousManifest = new Properties();
+        manifest = new ConcurrentHashMap<String, String>();
 
         grayFilter = new GrayscaleFilter();
 
@@ -631,6 +865,10 @@ public class RenderMojo extends AbstractMojo {
         File outputDir = new File(workingDirectory+"/eclipse-png/");
         File iconDirectoryRoot = new File("eclipse-svg/");
 
+        // Icons whose sources did not change since the last run are skipped
+        outputRoot = outputDir;
+        loadManifest();
+
         // Search each subdir in the root dir for svg icons
         for (File file : iconDirectoryRoot.listFiles()) {
             if(!file.isDirectory()) {
@@ -652,13 +890,16 @@ public class RenderMojo extends AbstractMojo {
         
         // Render the icons
         rasterizeAll();
+        saveManifest();
 
         // Print summary of operations
         int iconRendered = getIconsRendered();
         int failedIcons = getFailedIcons();
-        int fullIconCount = iconRendered - failedIcons;
+        int skippedIcons = getSkippedIcons();
+        int fullIconCount = iconRendered - failedIcons - skippedIcons;
         
         log.info(fullIconCount + " Icons Rendered");
+        log.info(skippedIcons + " Icons Up To Date");
         log.info(failedIcons + " Icons Failed");
         log.info("Took: "    + (System.currentTimeMillis() - startTime) + " ms.");
 
@@ -16,13 +16,19 @@ package org.eclipse.ui.internal.navigator;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.ITreePathContentProvider;
 import org.eclipse.jface.viewers.TreePath;
@@ -134,6 +140,8 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 		}
 		final Set finalSet = new LinkedHashSet();
 		final ContributorTrackingSet localSet = new ContributorTrackingSet(contentService);
+		final Map childrenJobs = scheduleChildrenJobs(aParentElementOrPath, enabledExtensions,
+				elements);
 
 		for (final Iterator itr = enabledExtensions.iterator(); itr.hasNext();) {
 			SafeRunner.run(new NavigatorSafeRunnable() {
@@ -144,7 +152,10 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 				public void run() throws Exception {
 					if (!isOverridingExtensionInSet(foundExtension.getDescriptor(),
 							enabledExtensions)) {
-						if (elements)
+						ChildrenJob childrenJob = (ChildrenJob) childrenJobs.get(foundExtension);
+						if (childrenJob != null)
+							contributedChildren = childrenJob.getChildren();
+						else if (elements)
 							contributedChildren = foundExtension.internalGetContentProvider()
 									.getElements(aParentElementOrPath);
 						else
@@ -176,6 +187,113 @@ public class NavigatorContentServiceContentProvider implements ITreeContentProvi
 		return finalSet.toArray();
 	}
 
+	/**
+	 * Starts computing the children of the extensions with a thread-safe
+	 * content provider in background jobs, so that they run concurrently with
+	 * each other and with the extensions that are asked on the calling thread.
+	 * The first extension is always asked on the calling thread, as its
+	 * children are needed first anyway.
+	 * 
+	 * @return a map of (NavigatorContentExtension, ChildrenJob)-pairs
+	 */
+	private Map scheduleChildrenJobs(Object aParentElementOrPath, Set enabledExtensions,
+			boolean elements) {
+		if (enabledExtensions.size() < 2) {
+			return Collections.EMPTY_MAP;
+		}
+		Map childrenJobs = null;
+		Iterator itr = enabledExtensions.iterator();
+		itr.next();
+		while (itr.hasNext()) {
+			NavigatorContentExtension extension = (NavigatorContentExtension) itr.next();
+			NavigatorContentDescriptor descriptor = (NavigatorContentDescriptor) extension
+					.getDescriptor();
+			if (descriptor.isContentProviderThreadSafe()
+					&& !isOverridingExtensionInSet(descriptor, enabledExtensions)) {
+				// create the content provider on the calling thread
+				SafeDelegateTreeContentProvider contentProvider = extension
+						.internalGetContentProvider();
+				if (contentProvider == null) {
+					continue;
+				}
+				if (childrenJobs == null) {
+					childrenJobs = new HashMap();
+				}
+				ChildrenJob job = new ChildrenJob(contentProvider, aParentElementOrPath, elements);
+				job.schedule();
+				childrenJobs.put(extension, job);
+			}
+		}
+		return childrenJobs == null ? Collections.EMPTY_MAP : childrenJobs;
+	}
+
+	/**
+	 * Asks a thread-safe content provider for children in the background.
+	 */
+	private static class ChildrenJob extends Job {
+
+		private final SafeDelegateTreeContentProvider contentProvider;
+
+		private final Object parentElementOrPath;
+
+		private final boolean elements;
+
+		private Object[] children;
+
+		private Throwable exception;
+
+		private boolean computed;
+
+		ChildrenJob(SafeDelegateTreeContentProvider aContentProvider,
+				Object aParentElementOrPath, boolean elements) {
+			super(""); //$NON-NLS-1$
+			this.contentProvider = aContentProvider;
+			this.parentElementOrPath = aParentElementOrPath;
+			this.elements = elements;
+			setSystem(true);
+		}
+
+		protected IStatus run(IProgressMonitor monitor) {
+			computeChildren();
+			return Status.OK_STATUS;
+		}
+
+		private synchronized void computeChildren() {
+			if (computed) {
+				return;
+			}
+			computed = true;
+			try {
+				if (elements)
+					children = contentProvider.getElements(parentElementOrPath);
+				else
+					children = contentProvider.getChildren(parentElementOrPath);
+			} catch (Throwable e) {
+				exception = e;
+			}
+		}
+
+		/**
+		 * Returns the computed children, waiting for the job to finish. If the
+		 * job has not started yet, the children are computed on the calling
+		 * thread instead.
+		 * 
+		 * @return the children
+		 * @throws Exception
+		 *             the exception thrown by the content provider
+		 */
+		Object[] getChildren() throws Exception {
+			cancel();
+			computeChildren();
+			if (exception instanceof Error) {
+				throw (Error) exception;
+			} else if (exception != null) {
+				throw (Exception) exception;
+			}
+			return children;
+		}
+	}
+
 	/**
 	 * Query each of <code>theOverridingExtensions</code> for children, and then
 	 * pipe them through the Pipeline content provider.
@@ -15,8 +15,10 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.WeakHashMap;
 
 import org.eclipse.osgi.util.NLS;
 
@@ -24,6 +26,7 @@ import org.eclipse.core.expressions.ElementHandler;
 import org.eclipse.core.expressions.EvaluationResult;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionConverter;
+import org.eclipse.core.expressions.ExpressionTagNames;
 import org.eclipse.core.expressions.IEvaluationContext;
 
 import org.eclipse.core.runtime.CoreException;
@@ -76,6 +79,15 @@ public final class NavigatorContentDescriptor implements
 
 	private Expression possibleChildren;
 
+	/*
+	 * Results of the enablement and possibleChildren expressions per runtime
+	 * class of the evaluated element (Map<Class, Boolean>). Only set if the
+	 * expression tests nothing but the type of the element, otherwise null.
+	 */
+	private Map enablementByType;
+
+	private Map possibleChildrenByType;
+
 	private Expression initialActivation;
 	
 	private String icon;
@@ -99,6 +111,8 @@ public final class NavigatorContentDescriptor implements
 
 	private boolean providesSaveables;
 
+	private boolean threadSafeContentProvider;
+
 	/**
 	 * Creates a new content descriptor from a configuration element.
 	 * 
@@ -199,6 +213,11 @@ public final class NavigatorContentDescriptor implements
 		providesSaveables = (providesSaveablesString != null && providesSaveablesString
 				.length() > 0) ? Boolean.valueOf(providesSaveablesString)
 						.booleanValue() : false;
+		String threadSafeString = configElement
+			.getAttribute(ATT_THREAD_SAFE_CONTENT_PROVIDER);
+		threadSafeContentProvider = (threadSafeString != null && threadSafeString
+				.length() > 0) ? Boolean.valueOf(threadSafeString)
+						.booleanValue() : false;
 		appearsBeforeId = configElement.getAttribute(ATT_APPEARS_BEFORE);
 
 		if (priorityString != null) {
@@ -264,6 +283,7 @@ public final class NavigatorContentDescriptor implements
 			children = configElement.getChildren(TAG_TRIGGER_POINTS);
 			if (children.length == 1) {
 				enablement = new CustomAndExpression(children[0]);
+				enablementByType = createTypeCache(children[0]);
 			} else {
 				throw new WorkbenchException(NLS.bind(
 						CommonNavigatorMessages.Attribute_Missing_Warning,
@@ -277,6 +297,7 @@ public final class NavigatorContentDescriptor implements
 			children = configElement.getChildren(TAG_POSSIBLE_CHILDREN);
 			if (children.length == 1) {
 				possibleChildren = new CustomAndExpression(children[0]);
+				possibleChildrenByType = createTypeCache(children[0]);
 			} else if(children.length > 1){
 				throw new WorkbenchException(NLS.bind(
 						CommonNavigatorMessages.Attribute_Missing_Warning,
@@ -290,6 +311,7 @@ public final class NavigatorContentDescriptor implements
 			try {
 				enablement = ElementHandler.getDefault().create(
 						ExpressionConverter.getDefault(), children[0]);
+				enablementByType = createTypeCache(children[0]);
 			} catch (CoreException e) {
 				NavigatorPlugin.log(IStatus.ERROR, 0, e.getMessage(), e);
 			}
@@ -422,8 +444,7 @@ public final class NavigatorContentDescriptor implements
 			return false;
 		}
 
-		IEvaluationContext context = NavigatorPlugin.getEvalContext(anElement);
-		return NavigatorPlugin.safeEvaluate(enablement, context) == EvaluationResult.TRUE;
+		return evaluate(enablement, enablementByType, anElement);
 	}
 
 	/**
@@ -449,14 +470,74 @@ public final class NavigatorContentDescriptor implements
 			return arePossibleChildren((IStructuredSelection) anElement);
 		}
 
-		IEvaluationContext context = NavigatorPlugin.getEvalContext(anElement);
 		if (possibleChildren != null) {
-			return NavigatorPlugin.safeEvaluate(possibleChildren, context) == EvaluationResult.TRUE;
+			return evaluate(possibleChildren, possibleChildrenByType, anElement);
 		} else if (enablement != null) {
-			return NavigatorPlugin.safeEvaluate(enablement, context) == EvaluationResult.TRUE;
+			return evaluate(enablement, enablementByType, anElement);
 		}
 		return false;
 	}
+
+	/**
+	 * Evaluates the expression for the given element. If a type cache is
+	 * given, the expression only depends on the runtime class of the element
+	 * and is evaluated once per class.
+	 */
+	private static boolean evaluate(Expression expression, Map resultsByType,
+			Object anElement) {
+		if (resultsByType == null) {
+			IEvaluationContext context = NavigatorPlugin.getEvalContext(anElement);
+			return NavigatorPlugin.safeEvaluate(expression, context) == EvaluationResult.TRUE;
+		}
+		Class type = anElement.getClass();
+		Boolean result;
+		synchronized (resultsByType) {
+			result = (Boolean) resultsByType.get(type);
+		}
+		if (result == null) {
+			IEvaluationContext context = NavigatorPlugin.getEvalContext(anElement);
+			result = Boolean.valueOf(NavigatorPlugin.safeEvaluate(expression,
+					context) == EvaluationResult.TRUE);
+			synchronized (resultsByType) {
+				resultsByType.put(type, result);
+			}
+		}
+		return result.booleanValue();
+	}
+
+	/**
+	 * @return a cache for the results of the expression defined by the
+	 *         children of the given element, or <code>null</code> if the
+	 *         expression does not depend on the type of the element only
+	 */
+	private static Map createTypeCache(IConfigurationElement expressionElement) {
+		return testsTypeOnly(expressionElement.getChildren()) ? new WeakHashMap()
+				: null;
+	}
+
+	/**
+	 * @return true if the given expression elements only consist of
+	 *         <code>instanceof</code> tests combined with <code>and</code>,
+	 *         <code>or</code> and <code>not</code>, i.e. their result is
+	 *         determined by the runtime class of the evaluated element
+	 */
+	private static boolean testsTypeOnly(IConfigurationElement[] expressionElements) {
+		for (int i = 0; i < expressionElements.length; i++) {
+			String name = expressionElements[i].getName();
+			if (ExpressionTagNames.INSTANCEOF.equals(name)) {
+				continue;
+			}
+			if (!ExpressionTagNames.AND.equals(name)
+					&& !ExpressionTagNames.OR.equals(name)
+					&& !ExpressionTagNames.NOT.equals(name)) {
+				return false;
+			}
+			if (!testsTypeOnly(expressionElements[i].getChildren())) {
+				return false;
+			}
+		}
+		return true;
+	}
 	
 	/**
 	 * A convenience method to check all elements in a selection.
@@ -563,4 +644,14 @@ public final class NavigatorContentDescriptor implements
 		return providesSaveables;
 	}
 
+	/**
+	 * 
+	 * @return True if the content provider of this extension may compute
+	 *         children in a background thread, concurrently with the content
+	 *         providers of other extensions.
+	 */
+	public boolean isContentProviderThreadSafe() {
+		return threadSafeContentProvider;
+	}
+
 }
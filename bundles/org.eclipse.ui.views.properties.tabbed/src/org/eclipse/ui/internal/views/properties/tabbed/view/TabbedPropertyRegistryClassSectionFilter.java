@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2008 IBM Corporation and others.
+ * Copyright (c) 2001, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.views.properties.tabbed.view;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -17,6 +18,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.eclipse.jface.viewers.IFilter;
 import org.eclipse.jface.viewers.ISelection;
@@ -34,6 +36,32 @@ public class TabbedPropertyRegistryClassSectionFilter {
 
 	private ITypeMapper typeMapper = null;
 
+	/**
+	 * The names of the classes and interfaces each class extends/implements
+	 * (Map&lt;Class, Set&lt;String&gt;&gt;). Shared by all filters, as the
+	 * hierarchy of a class never changes.
+	 */
+	private static final Map classTypesCache = new WeakHashMap();
+
+	/**
+	 * The last selection and its effective types. The filters of all section
+	 * descriptors are asked about the same selection one after the other, so
+	 * the selection only has to be grouped by type once.
+	 */
+	private static WeakReference lastSelection;
+
+	private static ITypeMapper lastTypeMapper;
+
+	private static Class[] lastEffectiveTypes;
+
+	/**
+	 * Whether the section of a descriptor applies to an effective type
+	 * (Map&lt;ISectionDescriptor, Map&lt;Class, Boolean&gt;&gt;). The input
+	 * types of a descriptor do not change, but some descriptors return a new
+	 * list each time they are asked, so the cache is keyed by descriptor.
+	 */
+	private final Map appliesToTypeCache = new WeakHashMap();
+
 	/**
 	 * Constructor for TabbedPropertyRegistryClassSectionFilter
 	 * 
@@ -93,24 +121,10 @@ public class TabbedPropertyRegistryClassSectionFilter {
 				return true;
 			}
 
-			Set effectiveTypes = new HashSet();
-
-			for (Iterator i = ((IStructuredSelection) selection).iterator(); i
-					.hasNext();) {
-
-				Object object = i.next();
-
-				Class remapType = object.getClass();
-				if (typeMapper != null) {
-					remapType = typeMapper.mapType(object);
-				}
-
-				if (effectiveTypes.add(remapType)) {
-
-					// the effective types of the selection
-					if (appliesToEffectiveType(descriptor, remapType) == false) {
-						return false;
-					}
+			Class[] effectiveTypes = getEffectiveTypes((IStructuredSelection) selection);
+			for (int i = 0; i < effectiveTypes.length; i++) {
+				if (appliesToEffectiveType(descriptor, effectiveTypes[i]) == false) {
+					return false;
 				}
 			}
 		} else {
@@ -123,21 +137,91 @@ public class TabbedPropertyRegistryClassSectionFilter {
 		return true;
 	}
 
+	/**
+	 * Returns the distinct effective types of the elements of the given
+	 * selection, i.e. their classes as remapped by the type mapper.
+	 */
+	private Class[] getEffectiveTypes(IStructuredSelection selection) {
+		synchronized (TabbedPropertyRegistryClassSectionFilter.class) {
+			if (lastSelection != null && lastSelection.get() == selection
+					&& lastTypeMapper == typeMapper) {
+				return lastEffectiveTypes;
+			}
+		}
+
+		Set effectiveTypes = new HashSet();
+		List result = new ArrayList();
+		for (Iterator i = selection.iterator(); i.hasNext();) {
+			Object object = i.next();
+
+			Class remapType = object.getClass();
+			if (typeMapper != null) {
+				remapType = typeMapper.mapType(object);
+			}
+
+			if (effectiveTypes.add(remapType)) {
+				result.add(remapType);
+			}
+		}
+		Class[] types = (Class[]) result.toArray(new Class[result.size()]);
+
+		synchronized (TabbedPropertyRegistryClassSectionFilter.class) {
+			lastSelection = new WeakReference(selection);
+			lastTypeMapper = typeMapper;
+			lastEffectiveTypes = types;
+		}
+		return types;
+	}
+
 	private boolean appliesToEffectiveType(ISectionDescriptor descriptor,
 			Class inputClass) {
 
-		ArrayList classTypes = getClassTypes(inputClass);
+		synchronized (appliesToTypeCache) {
+			Map descriptorCache = (Map) appliesToTypeCache.get(descriptor);
+			if (descriptorCache != null) {
+				Boolean cached = (Boolean) descriptorCache.get(inputClass);
+				if (cached != null) {
+					return cached.booleanValue();
+				}
+			}
+		}
 
 		List sectionInputTypes = descriptor.getInputTypes();
+		boolean applies = false;
+		Set classTypes = getClassTypeSet(inputClass);
 		for (Iterator j = sectionInputTypes.iterator(); j.hasNext();) {
 			String type = (String) j.next();
 			if (classTypes.contains(type)) {
 				// found a match
-				return true;
+				applies = true;
+				break;
 			}
 		}
 
-		return false;
+		synchronized (appliesToTypeCache) {
+			Map descriptorCache = (Map) appliesToTypeCache.get(descriptor);
+			if (descriptorCache == null) {
+				descriptorCache = new WeakHashMap();
+				appliesToTypeCache.put(descriptor, descriptorCache);
+			}
+			descriptorCache.put(inputClass, Boolean.valueOf(applies));
+		}
+		return applies;
+	}
+
+	/**
+	 * Returns the names of the classes and interfaces the given target class
+	 * extends/implements, computing them only once per class.
+	 */
+	private Set getClassTypeSet(Class target) {
+		synchronized (classTypesCache) {
+			Set classTypes = (Set) classTypesCache.get(target);
+			if (classTypes == null) {
+				classTypes = new HashSet(getClassTypes(target));
+				classTypesCache.put(target, classTypes);
+			}
+			return classTypes;
+		}
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2001, 2012 IBM Corporation and others.
+ * Copyright (c) 2001, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -99,6 +100,18 @@ public class TabbedPropertySheetPage
 
 	private Map tabToComposite;
 
+	/**
+	 * Tabs with created controls that do not apply to the current selection,
+	 * kept for reuse when a selection they apply to comes back. Ordered from
+	 * least to most recently pooled.
+	 */
+	private Map tabPool;
+
+	/**
+	 * The maximum number of tabs kept in <code>tabPool</code>.
+	 */
+	private static final int TAB_POOL_SIZE = 20;
+
 	private List selectionQueue;
 
 	private boolean selectionQueueLocked;
@@ -398,6 +411,7 @@ public class TabbedPropertySheetPage
 	 */
 	private void initContributor(String contributorId) {
 		descriptorToTab = new HashMap();
+		tabPool = new LinkedHashMap();
 		if (contributor.getContributorId().equals(contributorId)) {
 			/**
 			 * default contributor from the workbench part.
@@ -457,6 +471,10 @@ public class TabbedPropertySheetPage
 
 		disposeTabs(descriptorToTab.values());
 		descriptorToTab = new HashMap();
+		if (tabPool != null) {
+			disposeTabs(tabPool.values());
+			tabPool = new LinkedHashMap();
+		}
 
 		/**
 		 * Remove the label provider change listener.
@@ -650,8 +668,9 @@ public class TabbedPropertySheetPage
 	/**
 	 * Update the current tabs to represent the given input object. When tabs
 	 * apply for both the old and new input they are reused otherwise they are
-	 * disposed. If the current visible tab will not be reused (i.e. will be
-	 * disposed) we have to send it an aboutToBeHidden() message.
+	 * pooled, so that they can be reused when they apply again, or disposed.
+	 * If the current visible tab will not be reused we have to send it an
+	 * aboutToBeHidden() message.
 	 * @since 3.4
 	 */
 	protected void updateTabs(ITabDescriptor[] descriptors) {
@@ -660,6 +679,13 @@ public class TabbedPropertySheetPage
 		for (int i = 0; i < descriptors.length; i++) {
 			TabContents tab = (TabContents) descriptorToTab
 					.remove(descriptors[i]);
+			if (tab == null || !tab.controlsHaveBeenCreated()) {
+				TabContents pooled = (TabContents) tabPool
+						.remove(descriptors[i]);
+				if (pooled != null) {
+					tab = pooled;
+				}
+			}
 
 			if (tab != null && tab.controlsHaveBeenCreated()) {
 				if (tab == currentTab) {
@@ -679,10 +705,46 @@ public class TabbedPropertySheetPage
 			currentTab.aboutToBeHidden();
 			currentTab = null;
 		}
-		disposeTabs(descriptorToTab.values());
+		poolTabs(descriptorToTab);
 		descriptorToTab = newTabs;
 	}
 
+	/**
+	 * Moves the tabs of the given descriptor to tab map to the tab pool,
+	 * disposing the tabs that have no controls yet and the least recently
+	 * pooled tabs that no longer fit into the pool. All of these tabs have
+	 * already been sent aboutToBeHidden(), either when another tab was
+	 * selected or by updateTabs() for the current tab. A pooled tab keeps the
+	 * last input of its sections until it is reused or dropped from the pool,
+	 * which holds at most TAB_POOL_SIZE tabs.
+	 */
+	private void poolTabs(Map tabs) {
+		List disposed = new ArrayList();
+		for (Iterator iter = tabs.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry entry = (Map.Entry) iter.next();
+			TabContents tab = (TabContents) entry.getValue();
+			if (!tab.controlsHaveBeenCreated()) {
+				disposed.add(tab);
+				continue;
+			}
+			Composite composite = (Composite) tabToComposite.get(tab);
+			if (composite != null) {
+				composite.setVisible(false);
+			}
+			Object replaced = tabPool.remove(entry.getKey());
+			if (replaced != null) {
+				disposed.add(replaced);
+			}
+			tabPool.put(entry.getKey(), tab);
+		}
+		Iterator iter = tabPool.values().iterator();
+		while (tabPool.size() > TAB_POOL_SIZE) {
+			disposed.add(iter.next());
+			iter.remove();
+		}
+		disposeTabs(disposed);
+	}
+
 	/**
 	 * Create the tab contents for the provided tab descriptor.
 	 * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,8 +16,11 @@ package org.eclipse.ui.views.properties;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.commands.common.EventManager;
 import org.eclipse.jface.viewers.CellEditor;
@@ -84,6 +87,13 @@ public class PropertySheetEntry extends EventManager implements
 
 	private PropertySheetEntry[] childEntries = null;
 
+	/**
+	 * The merged property descriptors for the current values, or
+	 * <code>null</code> if they have not been computed since the values were
+	 * last set.
+	 */
+	private List mergedDescriptors = null;
+
 	/**
 	 * Create the CellEditorListener for this entry. It listens for value
 	 * changes in the CellEditor, and cancel and finish requests.
@@ -152,6 +162,20 @@ public class PropertySheetEntry extends EventManager implements
 		}
 	}
 
+	/**
+	 * Return the unsorted intersection of all the
+	 * <code>IPropertyDescriptor</code>s for the objects, computing it only once
+	 * for the current values.
+	 * 
+	 * @return List
+	 */
+	private List getMergedPropertyDescriptors() {
+		if (mergedDescriptors == null) {
+			mergedDescriptors = computeMergedPropertyDescriptors();
+		}
+		return mergedDescriptors;
+	}
+
 	/**
 	 * Return the unsorted intersection of all the
 	 * <code>IPropertyDescriptor</code>s for the objects.
@@ -172,32 +196,37 @@ public class PropertySheetEntry extends EventManager implements
 			return Arrays.asList(firstSource.getPropertyDescriptors());
 		}
 
-		// get all descriptors from each object
-		Map[] propertyDescriptorMaps = new Map[values.length];
-		for (int i = 0; i < values.length; i++) {
-			Object object = values[i];
-			IPropertySource source = getPropertySource(object);
+		// intersect the descriptors of all objects. Sources of the same kind
+		// often share their descriptor array, which then only has to be
+		// intersected once.
+		IPropertyDescriptor[] firstDescs = firstSource.getPropertyDescriptors();
+		Map intersection = computePropertyDescriptorsFor(firstDescs);
+		Map intersectedArrays = new IdentityHashMap();
+		intersectedArrays.put(firstDescs, firstDescs);
+		for (int i = 1; i < values.length; i++) {
+			IPropertySource source = getPropertySource(values[i]);
 			if (source == null) {
 				// if one of the selected items is not a property source
 				// then we show no properties
 				return new ArrayList(0);
 			}
+			IPropertyDescriptor[] descriptors = source.getPropertyDescriptors();
+			if (intersectedArrays.put(descriptors, descriptors) != null) {
+				continue;
+			}
 			// get the property descriptors keyed by id
-			propertyDescriptorMaps[i] = computePropertyDescriptorsFor(source);
-		}
+			Map descriptorMap = computePropertyDescriptorsFor(descriptors);
 
-		// intersect
-		Map intersection = propertyDescriptorMaps[0];
-		for (int i = 1; i < propertyDescriptorMaps.length; i++) {
 			// get the current ids
 			Object[] ids = intersection.keySet().toArray();
 			for (int j = 0; j < ids.length; j++) {
-				Object object = propertyDescriptorMaps[i].get(ids[j]);
+				Object object = descriptorMap.get(ids[j]);
+				Object current = intersection.get(ids[j]);
 				if (object == null ||
 				// see if the descriptors (which have the same id) are
 						// compatible
-						!((IPropertyDescriptor) intersection.get(ids[j]))
-								.isCompatibleWith((IPropertyDescriptor) object)) {
+						(object != current && !((IPropertyDescriptor) current)
+								.isCompatibleWith((IPropertyDescriptor) object))) {
 					intersection.remove(ids[j]);
 				}
 			}
@@ -206,7 +235,6 @@ public class PropertySheetEntry extends EventManager implements
 		// sorting is handled in the PropertySheetViewer, return unsorted (in
 		// the original order)
 		ArrayList result = new ArrayList(intersection.size());
-		IPropertyDescriptor[] firstDescs = firstSource.getPropertyDescriptors();
 		for (int i = 0; i < firstDescs.length; i++) {
 			IPropertyDescriptor desc = firstDescs[i];
 			if (intersection.containsKey(desc.getId())) {
@@ -217,15 +245,13 @@ public class PropertySheetEntry extends EventManager implements
 	}
 
 	/**
-	 * Returns an map of property descritptors (keyed on id) for the given
-	 * property source.
+	 * Returns an map of the given property descritptors keyed on their id.
 	 * 
-	 * @param source
-	 *            a property source for which to obtain descriptors
+	 * @param descriptors
+	 *            the descriptors of a property source
 	 * @return a table of decriptors keyed on their id
 	 */
-	private Map computePropertyDescriptorsFor(IPropertySource source) {
-		IPropertyDescriptor[] descriptors = source.getPropertyDescriptors();
+	private Map computePropertyDescriptorsFor(IPropertyDescriptor[] descriptors) {
 		Map result = new HashMap(descriptors.length * 2 + 1);
 		for (int i = 0; i < descriptors.length; i++) {
 			result.put(descriptors[i].getId(), descriptors[i]);
@@ -238,7 +264,7 @@ public class PropertySheetEntry extends EventManager implements
 	 */
 	private void createChildEntries() {
 		// get the current descriptors
-		List descriptors = computeMergedPropertyDescriptors();
+		List descriptors = getMergedPropertyDescriptors();
 
 		// rebuild child entries using old when possible
 		PropertySheetEntry[] newEntries = new PropertySheetEntry[descriptors
@@ -517,7 +543,7 @@ public class PropertySheetEntry extends EventManager implements
 			return true;
 		}
 		// see if we could have entires if we were asked
-		return computeMergedPropertyDescriptors().size() > 0;
+		return getMergedPropertyDescriptors().size() > 0;
 	}
 
 	/**
@@ -531,8 +557,10 @@ public class PropertySheetEntry extends EventManager implements
 			return;
 		}
 
-		// get the current descriptors
-		List descriptors = computeMergedPropertyDescriptors();
+		// get the current descriptors, they may have changed even if our
+		// values did not
+		mergedDescriptors = computeMergedPropertyDescriptors();
+		List descriptors = mergedDescriptors;
 
 		// cache old entries by their descriptor id
 		Map entryCache = new HashMap(childEntries.length * 2 + 1);
@@ -543,8 +571,9 @@ public class PropertySheetEntry extends EventManager implements
 			}
 		}
 
-		// create a list of entries to dispose
-		List entriesToDispose = new ArrayList(Arrays.asList(childEntries));
+		// remember the old entries, the ones not reused get disposed
+		PropertySheetEntry[] oldEntries = childEntries;
+		Set reusedEntries = new HashSet(oldEntries.length * 2 + 1);
 
 		// clear the old entries
 		this.childEntries = null;
@@ -561,7 +590,7 @@ public class PropertySheetEntry extends EventManager implements
 			if (entry != null) {
 				// reuse old entry
 				entry.setDescriptor(d);
-				entriesToDispose.remove(entry);
+				reusedEntries.add(entry);
 			} else {
 				// create new entry
 				entry = createChildEntry();
@@ -582,8 +611,10 @@ public class PropertySheetEntry extends EventManager implements
 		}
 
 		// Dispose of entries which are no longer needed
-		for (int i = 0; i < entriesToDispose.size(); i++) {
-			((IPropertySheetEntry) entriesToDispose.get(i)).dispose();
+		for (int i = 0; i < oldEntries.length; i++) {
+			if (oldEntries[i] != null && !reusedEntries.contains(oldEntries[i])) {
+				oldEntries[i].dispose();
+			}
 		}
 	}
 
@@ -746,6 +777,7 @@ public class PropertySheetEntry extends EventManager implements
 	public void setValues(Object[] objects) {
 		values = objects;
 		sources = new HashMap(values.length * 2 + 1);
+		mergedDescriptors = null;
 
 		if (values.length == 0) {
 			editValue = null;
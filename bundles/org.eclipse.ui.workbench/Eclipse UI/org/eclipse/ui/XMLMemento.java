@@ -45,6 +45,13 @@ import org.xml.sax.SAXParseException;
  * @see IMemento
  */
 public final class XMLMemento implements IMemento {
+	/**
+	 * The factory creating the parsers and documents. Looking up the factory
+	 * implementation is expensive, so it is only done once. Guarded by the
+	 * class.
+	 */
+	private static DocumentBuilderFactory documentBuilderFactory;
+
     private Document factory;
 
     private Element element;
@@ -86,9 +93,7 @@ public final class XMLMemento implements IMemento {
         Exception exception = null;
 
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory
-                    .newInstance();
-            DocumentBuilder parser = factory.newDocumentBuilder();
+            DocumentBuilder parser = newDocumentBuilder();
             InputSource source = new InputSource(reader);
             if (baseDir != null) {
 				source.setSystemId(baseDir);
@@ -158,8 +163,7 @@ public final class XMLMemento implements IMemento {
 	public static XMLMemento createWriteRoot(String type) throws DOMException {
         Document document;
         try {
-            document = DocumentBuilderFactory.newInstance()
-                    .newDocumentBuilder().newDocument();
+            document = newDocumentBuilder().newDocument();
             Element element = document.createElement(type);
             document.appendChild(element);
             return new XMLMemento(document, element);
@@ -169,6 +173,22 @@ public final class XMLMemento implements IMemento {
         }
     }
 
+	/**
+	 * Returns a new document builder from the shared factory. The builders are
+	 * not shared, as they may not be used by several threads at once.
+	 * 
+	 * @return a new document builder
+	 * @throws ParserConfigurationException
+	 *             if the builder cannot be created
+	 */
+	private static synchronized DocumentBuilder newDocumentBuilder()
+			throws ParserConfigurationException {
+		if (documentBuilderFactory == null) {
+			documentBuilderFactory = DocumentBuilderFactory.newInstance();
+		}
+		return documentBuilderFactory.newDocumentBuilder();
+	}
+
     /**
      * Creates a memento for the specified document and element.
      * <p>
@@ -663,7 +683,7 @@ public final class XMLMemento implements IMemento {
 	    				prevWasText = false;
 	    			}
 	    			else if (node instanceof Text) {
-	    				print(getEscaped(node.getNodeValue()));
+	    				printEscaped(node.getNodeValue());
 	    				prevWasText = true;
 	    			}
 	    		}
@@ -675,47 +695,51 @@ public final class XMLMemento implements IMemento {
     	}
 
     	private void startTag(Element element, boolean hasChildren) {
-    		StringBuffer sb = new StringBuffer();
-    		sb.append("<"); //$NON-NLS-1$
-    		sb.append(element.getTagName());
+    		write('<');
+    		write(element.getTagName());
     		NamedNodeMap attributes = element.getAttributes();
    			for (int i = 0;  i < attributes.getLength(); i++) {
    				Attr attribute = (Attr)attributes.item(i);
-				sb.append(" "); //$NON-NLS-1$
-				sb.append(attribute.getName());
-				sb.append("=\""); //$NON-NLS-1$
-				sb.append(getEscaped(String.valueOf(attribute.getValue())));
-				sb.append("\""); //$NON-NLS-1$
+				write(' ');
+				write(attribute.getName());
+				write("=\""); //$NON-NLS-1$
+				printEscaped(String.valueOf(attribute.getValue()));
+				write('"');
    			}
-   			sb.append(hasChildren ? ">" : "/>"); //$NON-NLS-1$ //$NON-NLS-2$
-   			print(sb.toString());
+   			write(hasChildren ? ">" : "/>"); //$NON-NLS-1$ //$NON-NLS-2$
     	}
 
     	private void endTag(Element element) {
-    		StringBuffer sb = new StringBuffer();
-    		sb.append("</"); //$NON-NLS-1$
-    		sb.append(element.getNodeName());
-    		sb.append(">"); //$NON-NLS-1$
-   			print(sb.toString());
-    	}
-    	
-    	private static void appendEscapedChar(StringBuffer buffer, char c) {
-    		String replacement = getReplacement(c);
-    		if (replacement != null) {
-    			buffer.append('&');
-    			buffer.append(replacement);
-    			buffer.append(';');
-    		} else if (c==9 || c==10 || c==13 || c>=32){
-    			buffer.append(c);
-    		}
+    		write("</"); //$NON-NLS-1$
+    		write(element.getNodeName());
+    		write('>');
     	}
 
-    	private static String getEscaped(String s) {
-    		StringBuffer result = new StringBuffer(s.length() + 10);
-    		for (int i = 0; i < s.length(); ++i) {
-				appendEscapedChar(result, s.charAt(i));
-			}
-    		return result.toString();
+    	/**
+    	 * Writes the string, replacing special characters by character
+    	 * references and dropping characters that are not allowed in XML.
+    	 * Unchanged runs of characters are written as they are, without
+    	 * copying them first.
+    	 * 
+    	 * @param s the string to write
+    	 */
+    	private void printEscaped(String s) {
+    		int length = s.length();
+    		int start = 0;
+    		for (int i = 0; i < length; ++i) {
+    			char c = s.charAt(i);
+    			String replacement = getReplacement(c);
+    			if (replacement != null || c < 32) {
+    				write(s, start, i - start);
+    				if (replacement != null) {
+    					write('&');
+    					write(replacement);
+    					write(';');
+    				}
+    				start = i + 1;
+    			}
+    		}
+    		write(s, start, length - start);
     	}
 
     	private static String getReplacement(char c) {
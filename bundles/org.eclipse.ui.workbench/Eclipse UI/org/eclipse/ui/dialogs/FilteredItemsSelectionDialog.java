@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -223,6 +223,12 @@ public abstract class FilteredItemsSelectionDialog extends
 
 	private static final String EMPTY_STRING = ""; //$NON-NLS-1$
 
+	/**
+	 * Minimum delay (in milliseconds) between two refreshes of the list while
+	 * the filter job is still adding matching items.
+	 */
+	private static final long INCREMENTAL_REFRESH_DELAY = 200;
+
 	private boolean refreshWithLastSelection = false;
 
 	private IHandlerActivation showViewHandler;
@@ -2194,15 +2200,16 @@ public abstract class FilteredItemsSelectionDialog extends
 			if (lastCompletedFilter != null
 					&& lastCompletedFilter.isSubFilter(this.itemsFilter)) {
 
-				int length = lastCompletedResult.size() / 500;
+				List previousResult = lastCompletedResult;
+				int length = previousResult.size() / 500;
 				monitor
 						.beginTask(
 								WorkbenchMessages.FilteredItemsSelectionDialog_cacheSearchJob_taskName,
 								length);
 
-				for (int pos = 0; pos < lastCompletedResult.size(); pos++) {
+				for (int pos = 0; pos < previousResult.size(); pos++) {
 
-					Object item = lastCompletedResult.get(pos);
+					Object item = previousResult.get(pos);
 					if (monitor.isCanceled())
 						break;
 					contentProvider.add(item, itemsFilter);
@@ -2212,6 +2219,12 @@ public abstract class FilteredItemsSelectionDialog extends
 					}
 				}
 
+				// remember the narrowed result so that the next sub-filter
+				// only has to look at the items matched by this one
+				if (!monitor.isCanceled()) {
+					contentProvider.rememberResult(itemsFilter);
+				}
+
 			} else {
 
 				lastCompletedFilter = null;
@@ -2664,6 +2677,14 @@ public abstract class FilteredItemsSelectionDialog extends
 		 */
 		private List lastSortedItems;
 
+		/**
+		 * Items added to <code>items</code> since <code>lastSortedItems</code>
+		 * was last brought up to date. They are merged into the sorted items
+		 * instead of sorting all items again. Guarded by itself; changes to
+		 * <code>items</code> are made while holding this lock.
+		 */
+		private List addedItems;
+
 		/**
 		 * Used for <code>getFilteredItems()</code> method canceling (when the
 		 * job that invoked the method was canceled).
@@ -2675,6 +2696,13 @@ public abstract class FilteredItemsSelectionDialog extends
 		 */
 		private boolean reset;
 
+		/**
+		 * Time of the last refresh triggered while items were being added.
+		 * 
+		 * @see #add(Object, ItemsFilter)
+		 */
+		private long lastIncrementalRefresh;
+
 		/**
 		 * Creates new instance of <code>ContentProvider</code>.
 		 */
@@ -2684,6 +2712,7 @@ public abstract class FilteredItemsSelectionDialog extends
 			this.lastFilteredItems = new ArrayList();
 			this.lastSortedItems = Collections.synchronizedList(new ArrayList(
 					2048));
+			this.addedItems = new ArrayList(256);
 		}
 
 		/**
@@ -2708,9 +2737,13 @@ public abstract class FilteredItemsSelectionDialog extends
 		 */
 		public void reset() {
 			reset = true;
-			this.items.clear();
+			synchronized (addedItems) {
+				this.items.clear();
+				this.addedItems.clear();
+			}
 			this.duplicates.clear();
 			this.lastSortedItems.clear();
+			this.lastIncrementalRefresh = System.currentTimeMillis();
 		}
 
 		/**
@@ -2721,7 +2754,8 @@ public abstract class FilteredItemsSelectionDialog extends
 		}
 
 		/**
-		 * Adds filtered item.
+		 * Adds filtered item. Items found so far are periodically pushed to the
+		 * list, so that results show up while the filter job is still running.
 		 * 
 		 * @param item
 		 * @param itemsFilter
@@ -2731,14 +2765,59 @@ public abstract class FilteredItemsSelectionDialog extends
 			if (itemsFilter == filter) {
 				if (itemsFilter != null) {
 					if (itemsFilter.matchItem(item)) {
-						this.items.add(item);
+						addItem(item);
+						refreshIncrementally();
 					}
 				} else {
-					this.items.add(item);
+					addItem(item);
+					refreshIncrementally();
 				}
 			}
 		}
 
+		/**
+		 * Adds the item to <code>items</code> and remembers it for merging into
+		 * the sorted items.
+		 * 
+		 * @param item
+		 */
+		private void addItem(Object item) {
+			synchronized (addedItems) {
+				if (this.items.add(item)) {
+					this.addedItems.add(item);
+				}
+			}
+		}
+
+		/**
+		 * Removes the item from <code>items</code>.
+		 * 
+		 * @param item
+		 */
+		private void removeItem(Object item) {
+			synchronized (addedItems) {
+				this.items.remove(item);
+				this.addedItems.remove(item);
+			}
+		}
+
+		/**
+		 * Refreshes the dialog if no incremental refresh has been triggered
+		 * within the last <code>INCREMENTAL_REFRESH_DELAY</code> milliseconds.
+		 * Nothing is done while a refresh is still scheduled or running, so
+		 * that a slow refresh is not canceled over and over again.
+		 */
+		private void refreshIncrementally() {
+			if (refreshCacheJob.getState() != Job.NONE) {
+				return;
+			}
+			long now = System.currentTimeMillis();
+			if (now - lastIncrementalRefresh >= INCREMENTAL_REFRESH_DELAY) {
+				lastIncrementalRefresh = now;
+				refresh();
+			}
+		}
+
 		/**
 		 * Add all history items to <code>contentProvider</code>.
 		 * 
@@ -2753,7 +2832,7 @@ public abstract class FilteredItemsSelectionDialog extends
 						if (itemsFilter != null) {
 							if (itemsFilter.matchItem(item)) {
 								if (itemsFilter.isConsistentItem(item)) {
-									this.items.add(item);
+									addItem(item);
 								} else {
 									this.selectionHistory.remove(item);
 								}
@@ -2783,7 +2862,7 @@ public abstract class FilteredItemsSelectionDialog extends
 			if (this.selectionHistory != null)
 				this.selectionHistory.remove(item);
 			if (filter == null || filter.getPattern().length() == 0) {
-				items.remove(item);
+				removeItem(item);
 				duplicates.remove(item);
 				this.lastSortedItems.remove(item);
 			}
@@ -2804,7 +2883,7 @@ public abstract class FilteredItemsSelectionDialog extends
 			if (this.selectionHistory != null)
 				this.selectionHistory.accessed(item);
 			if (filter == null || !filter.matchItem(item)) {
-				this.items.remove(item);
+				removeItem(item);
 				this.duplicates.remove(item);
 				this.lastSortedItems.remove(item);
 			}
@@ -2882,14 +2961,60 @@ public abstract class FilteredItemsSelectionDialog extends
 		 * @return sorted items
 		 */
 		private Object[] getSortedItems() {
-			if (lastSortedItems.size() != items.size()) {
-				synchronized (lastSortedItems) {
+			synchronized (lastSortedItems) {
+				Object[] added;
+				Object[] allItems = null;
+				synchronized (addedItems) {
+					added = addedItems.toArray();
+					addedItems.clear();
+					if (lastSortedItems.size() + added.length != items.size()) {
+						allItems = items.toArray();
+					}
+				}
+				Comparator comparator = getHistoryComparator();
+				if (allItems != null) {
+					// items were changed without being recorded, sort all
 					lastSortedItems.clear();
-					lastSortedItems.addAll(items);
-					Collections.sort(lastSortedItems, getHistoryComparator());
+					lastSortedItems.addAll(Arrays.asList(allItems));
+					Collections.sort(lastSortedItems, comparator);
+				} else if (added.length > 0) {
+					Arrays.sort(added, comparator);
+					mergeSortedItems(added, comparator);
 				}
+				return lastSortedItems.toArray();
+			}
+		}
+
+		/**
+		 * Merges the sorted items into <code>lastSortedItems</code>. Must be
+		 * called while holding the lock on <code>lastSortedItems</code>.
+		 * 
+		 * @param added
+		 *            the items to merge, sorted with the comparator
+		 * @param comparator
+		 *            the comparator <code>lastSortedItems</code> is sorted
+		 *            with
+		 */
+		private void mergeSortedItems(Object[] added, Comparator comparator) {
+			Object[] sorted = lastSortedItems.toArray();
+			List merged = new ArrayList(sorted.length + added.length);
+			int i = 0;
+			int j = 0;
+			while (i < sorted.length && j < added.length) {
+				if (comparator.compare(added[j], sorted[i]) < 0) {
+					merged.add(added[j++]);
+				} else {
+					merged.add(sorted[i++]);
+				}
+			}
+			while (i < sorted.length) {
+				merged.add(sorted[i++]);
+			}
+			while (j < added.length) {
+				merged.add(added[j++]);
 			}
-			return lastSortedItems.toArray();
+			lastSortedItems.clear();
+			lastSortedItems.addAll(merged);
 		}
 
 		/**
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.ui.internal.misc.UIStats;
+import org.eclipse.ui.internal.registry.IWorkbenchRegistryConstants;
+
+/**
+ * Runs the <code>org.eclipse.ui.startup</code> extensions after the workbench
+ * has started.
+ * <p>
+ * Extensions run concurrently on a small number of jobs, so that one slow
+ * <code>earlyStartup()</code> does not delay all the others. Extensions that
+ * set the <code>concurrent</code> attribute of their startup element to
+ * <code>false</code> run one after another, in registry order, on a single
+ * job, as all extensions did before. All jobs belong to the
+ * {@link Workbench#EARLY_STARTUP_FAMILY} family.
+ * </p>
+ * <p>
+ * The time each plug-in spends in its early startup code is recorded, see
+ * {@link #getStartupTime(String)}, and reported as a
+ * {@link UIStats#EARLY_STARTUP} performance event.
+ * </p>
+ */
+public class EarlyStartupScheduler {
+
+	/**
+	 * The maximum number of jobs running concurrent early startup code.
+	 */
+	private static final int MAX_CONCURRENT_JOBS = 4;
+
+	private final Workbench workbench;
+
+	private final IExtension[] extensions;
+
+	/**
+	 * The concurrent extensions that have not been started yet. Guarded by
+	 * itself.
+	 */
+	private final LinkedList<IExtension> pending = new LinkedList<IExtension>();
+
+	/**
+	 * The milliseconds spent in the early startup code, by plug-in id. Guarded
+	 * by itself.
+	 */
+	private final Map<String, Long> startupTimes = new HashMap<String, Long>();
+
+	/**
+	 * @param workbench
+	 *            the workbench, must not be <code>null</code>
+	 * @param extensions
+	 *            the <code>org.eclipse.ui.startup</code> extensions to run
+	 */
+	public EarlyStartupScheduler(Workbench workbench, IExtension[] extensions) {
+		this.workbench = workbench;
+		this.extensions = extensions;
+	}
+
+	/**
+	 * Schedules the early startup of all extensions whose plug-in has not been
+	 * disabled by the user.
+	 */
+	public void schedule() {
+		Job job = new StartupJob("Workbench early startup") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				Set<String> disabledPlugins = new HashSet<String>(Arrays.asList(workbench
+						.getDisabledEarlyActivatedPlugins()));
+				List<IExtension> serial = new ArrayList<IExtension>();
+				synchronized (pending) {
+					for (int i = 0; i < extensions.length; i++) {
+						IExtension extension = extensions[i];
+						if (disabledPlugins.contains(extension.getNamespaceIdentifier())) {
+							continue;
+						}
+						if (isConcurrent(extension)) {
+							pending.add(extension);
+						} else {
+							serial.add(extension);
+						}
+					}
+				}
+				scheduleConcurrentJobs();
+
+				monitor.beginTask(WorkbenchMessages.Workbench_startingPlugins, serial.size());
+				try {
+					for (IExtension extension : serial) {
+						if (monitor.isCanceled() || !workbench.isRunning()) {
+							return Status.CANCEL_STATUS;
+						}
+						runEarlyStartup(extension, monitor);
+						monitor.worked(1);
+					}
+				} finally {
+					monitor.done();
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.schedule();
+	}
+
+	private void scheduleConcurrentJobs() {
+		int jobCount;
+		synchronized (pending) {
+			jobCount = Math.min(MAX_CONCURRENT_JOBS, pending.size());
+		}
+		for (int i = 0; i < jobCount; i++) {
+			Job job = new StartupJob("Workbench early startup (concurrent)") { //$NON-NLS-1$
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					monitor.beginTask(WorkbenchMessages.Workbench_startingPlugins,
+							IProgressMonitor.UNKNOWN);
+					try {
+						while (true) {
+							if (monitor.isCanceled() || !workbench.isRunning()) {
+								return Status.CANCEL_STATUS;
+							}
+							IExtension extension;
+							synchronized (pending) {
+								if (pending.isEmpty()) {
+									return Status.OK_STATUS;
+								}
+								extension = pending.removeFirst();
+							}
+							runEarlyStartup(extension, monitor);
+						}
+					} finally {
+						monitor.done();
+					}
+				}
+			};
+			job.schedule();
+		}
+	}
+
+	/**
+	 * Runs the early startup code of one extension and records the time it
+	 * took.
+	 */
+	private void runEarlyStartup(IExtension extension, IProgressMonitor monitor) {
+		String pluginId = extension.getNamespaceIdentifier();
+		monitor.subTask(pluginId);
+		String label = pluginId + '/' + extension.getUniqueIdentifier();
+		UIStats.start(UIStats.EARLY_STARTUP, label);
+		long start = System.currentTimeMillis();
+		try {
+			SafeRunner.run(new EarlyStartupRunnable(extension));
+		} finally {
+			long elapsed = System.currentTimeMillis() - start;
+			UIStats.end(UIStats.EARLY_STARTUP, extension, label);
+			synchronized (startupTimes) {
+				Long previous = startupTimes.get(pluginId);
+				startupTimes.put(pluginId, Long.valueOf(previous == null ? elapsed : previous
+						.longValue() + elapsed));
+			}
+		}
+	}
+
+	/**
+	 * Returns whether all startup elements of the extension allow to run
+	 * concurrently with other early startup code. Extensions without a startup
+	 * element rely on the deprecated plug-in class mechanism and always run
+	 * serially.
+	 */
+	private static boolean isConcurrent(IExtension extension) {
+		IConfigurationElement[] elements = extension.getConfigurationElements();
+		boolean found = false;
+		for (int i = 0; i < elements.length; i++) {
+			if (IWorkbenchConstants.TAG_STARTUP.equals(elements[i].getName())) {
+				if ("false".equalsIgnoreCase(elements[i] //$NON-NLS-1$
+						.getAttribute(IWorkbenchRegistryConstants.ATT_CONCURRENT))) {
+					return false;
+				}
+				found = true;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns the time the early startup code of the given plug-in took.
+	 *
+	 * @param pluginId
+	 *            the id of the plug-in contributing the startup extension
+	 * @return the time in milliseconds, or <code>-1</code> if the early
+	 *         startup code of the plug-in has not run (yet)
+	 */
+	public long getStartupTime(String pluginId) {
+		synchronized (startupTimes) {
+			Long time = startupTimes.get(pluginId);
+			return time == null ? -1 : time.longValue();
+		}
+	}
+
+	private abstract static class StartupJob extends Job {
+		StartupJob(String name) {
+			super(name);
+			setSystem(true);
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return Workbench.EARLY_STARTUP_FAMILY.equals(family);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,6 +21,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IAdapterManager;
@@ -73,29 +74,81 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 		IObjectContributor contributor;
 	}
 
+	/**
+	 * The search orders of a class, computed once per class. Class hierarchies
+	 * do not change, so entries only need to be dropped to release classes of
+	 * plug-ins that went away.
+	 */
+	private static final class TypeHierarchy {
+
+		/** The class and its superclasses, see {@link ObjectContributorManager#computeClassOrder(Class)}. */
+		final List classOrder;
+
+		/** The interfaces, see {@link ObjectContributorManager#computeInterfaceOrder(List)}. */
+		final List interfaceOrder;
+
+		/** See {@link ObjectContributorManager#computeCombinedOrder(Class)}. */
+		final List combinedOrder;
+
+		/** The names of all classes and interfaces above. */
+		final Set typeNames;
+
+		private TypeHierarchy(ObjectContributorManager manager, Class clazz) {
+			List classes = manager.computeClassOrder(clazz);
+			List interfaces = manager.computeInterfaceOrder(classes);
+			classOrder = Collections.unmodifiableList(classes);
+			interfaceOrder = Collections.unmodifiableList(interfaces);
+			combinedOrder = Collections.unmodifiableList(manager
+					.computeCombinedOrder(clazz));
+			Set names = new HashSet();
+			for (int i = 0; i < classes.size(); i++) {
+				names.add(((Class) classes.get(i)).getName());
+			}
+			for (int i = 0; i < interfaces.size(); i++) {
+				names.add(((Class) interfaces.get(i)).getName());
+			}
+			typeNames = names;
+		}
+	}
+
     /** Table of contributors. */
     protected Map contributors;
 
-    /** Cache of object class contributor search paths; <code>null</code> if none. */
+    /** Cache of object class contributor search paths. */
     protected Map objectLookup;
 
-    /** Cache of resource adapter class contributor search paths; <code>null</code> if none. */
+    /** Cache of resource adapter class contributor search paths. */
     protected Map resourceAdapterLookup;
     
-    /** Cache of adaptable class contributor search paths; <code>null</code> if none. */
+    /** Cache of adaptable class contributor search paths. */
     protected Map adaptableLookup;
     
     protected Set contributorRecordSet;
 
+    /**
+     * Incremented whenever cached search paths are invalidated, so that a
+     * search path computed concurrently with a change is not kept.
+     */
+    private volatile int lookupGeneration;
+
+    /**
+     * The type hierarchies of the classes looked up by this manager, by
+     * class. A hierarchy refers to its class, so the map cannot have weak
+     * keys; it belongs to the manager instead of being shared, and is cleared
+     * whenever contributions are removed, e.g. because their plug-in is
+     * stopped.
+     */
+    private final Map typeHierarchies = new ConcurrentHashMap();
+
     /** 
      * Constructs a new contributor manager.
      */
     public ObjectContributorManager() {
     	contributors = new Hashtable(5);
         contributorRecordSet = new HashSet(5);
-        objectLookup = null;
-        resourceAdapterLookup = null;
-        adaptableLookup = null;
+        objectLookup = new ConcurrentHashMap();
+        resourceAdapterLookup = new ConcurrentHashMap();
+        adaptableLookup = new ConcurrentHashMap();
         String extensionPointId = getExtensionPointFilter();
         if (extensionPointId != null) {
         	IExtensionPoint extensionPoint = Platform.getExtensionRegistry().getExtensionPoint(
@@ -162,46 +215,65 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
     }
 
     /**
-     * Flushes the cache of contributor search paths.  This is generally required
-     * whenever a contributor is added or removed.  
+     * Flushes the cache of contributor search paths.
      * <p>
-     * It is likely easier to just toss the whole cache rather than trying to be
-     * smart and remove only those entries affected.
+     * Adding or removing a contributor only invalidates the search paths that
+     * include its target type, see {@link #flushLookup(String)}.
+     * </p>
      */
     public void flushLookup() {
-        objectLookup = null;
-        resourceAdapterLookup = null;
-        adaptableLookup = null;
+        lookupGeneration++;
+        objectLookup.clear();
+        resourceAdapterLookup.clear();
+        adaptableLookup.clear();
     }
 
     /**
-     * Cache the real adapter class contributor search path.
+     * Flushes the cached contributor search paths that include the given
+     * type. Called whenever a contributor for the type is added or removed.
+     * 
+     * @param targetType
+     *            the name of the type
+     * @since 3.106
      */
-    private void cacheResourceAdapterLookup(Class adapterClass, List results) {
-        if (resourceAdapterLookup == null) {
-			resourceAdapterLookup = new HashMap();
-		}
-        resourceAdapterLookup.put(adapterClass, results);
+    protected void flushLookup(String targetType) {
+        lookupGeneration++;
+        adaptableLookup.remove(targetType);
+        flushLookup(objectLookup, targetType);
+        flushLookup(resourceAdapterLookup, targetType);
     }
-    
+
     /**
-     * Cache the real adapter class contributor search path.
+     * Returns the type hierarchy of the given class, computing it on first
+     * use.
      */
-    private void cacheAdaptableLookup(String adapterClass, List results) {
-        if (adaptableLookup == null) {
-			adaptableLookup = new HashMap();
-		}
-        adaptableLookup.put(adapterClass, results);
+    private TypeHierarchy getTypeHierarchy(Class clazz) {
+        TypeHierarchy hierarchy = (TypeHierarchy) typeHierarchies.get(clazz);
+        if (hierarchy == null) {
+            hierarchy = new TypeHierarchy(this, clazz);
+            typeHierarchies.put(clazz, hierarchy);
+        }
+        return hierarchy;
+    }
+
+    private void flushLookup(Map classLookup, String targetType) {
+        for (Iterator i = classLookup.keySet().iterator(); i.hasNext();) {
+            Class clazz = (Class) i.next();
+            if (getTypeHierarchy(clazz).typeNames.contains(targetType)) {
+                i.remove();
+            }
+        }
     }
 
     /**
-     * Cache the object class contributor search path.
+     * Cache a contributor search path, unless the cache has been invalidated
+     * since the search path computation started.
      */
-    private void cacheObjectLookup(Class objectClass, List results) {
-        if (objectLookup == null) {
-			objectLookup = new HashMap();
-		}
-        objectLookup.put(objectClass, results);
+    private void cacheLookup(Map lookup, Object key, List results, int generation) {
+        lookup.put(key, results);
+        if (generation != lookupGeneration) {
+            lookup.remove(key);
+        }
     }
 
     /**
@@ -221,11 +293,10 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
      */
     protected List addContributorsFor(Class objectClass) {
 
-        List classList = computeClassOrder(objectClass);
+        TypeHierarchy hierarchy = getTypeHierarchy(objectClass);
         List result = new ArrayList();
-        addContributorsFor(classList, result);
-        classList = computeInterfaceOrder(classList); // interfaces
-        addContributorsFor(classList, result);
+        addContributorsFor(hierarchy.classOrder, result);
+        addContributorsFor(hierarchy.interfaceOrder, result); // interfaces
         return result;
     }
 
@@ -321,7 +392,7 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
             contributors.put(targetType, contributorList);
         }
         contributorList.add(contributor);
-        flushLookup();
+        flushLookup(targetType);
 
         IConfigurationElement element = (IConfigurationElement) Util.getAdapter(contributor,
         	IConfigurationElement.class);
@@ -343,6 +414,7 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
     public void unregisterAllContributors() {
         contributors = new Hashtable(5);
         flushLookup();
+        typeHierarchies.clear();
     }
 
     /**
@@ -361,7 +433,7 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
         if (contributorList.isEmpty()) {
 			contributors.remove(targetType);
 		}
-        flushLookup();
+        flushLookup(targetType);
     }
 
 
@@ -372,7 +444,7 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
      */
     public void unregisterContributors(String targetType) {
         contributors.remove(targetType);
-        flushLookup();
+        flushLookup(targetType);
     }
     
     protected List getContributors(Object object) {
@@ -416,12 +488,10 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
      * @since 3.1
      */
     protected List getObjectContributors(Class objectClass) {
-		List objectList = null;
 		// Lookup the results in the cache first.
-		if (objectLookup != null) {
-			objectList = (List) objectLookup.get(objectClass);
-		}
+		List objectList = (List) objectLookup.get(objectClass);
 		if (objectList == null) {
+			int generation = lookupGeneration;
 			objectList = addContributorsFor(objectClass);
 			if (objectList.size() == 0) {
 				objectList = Collections.EMPTY_LIST;
@@ -429,7 +499,7 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 			else {
 				objectList = Collections.unmodifiableList(objectList);
 			}
-			cacheObjectLookup(objectClass, objectList);
+			cacheLookup(objectLookup, objectClass, objectList, generation);
 		}
 		return objectList;
 	}
@@ -446,18 +516,16 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
      * @since 3.1
      */
 	protected List getResourceContributors(Class resourceClass) {
-		List resourceList = null;
-		if (resourceAdapterLookup != null) {
-			resourceList = (List) resourceAdapterLookup.get(resourceClass);
-		}
+		List resourceList = (List) resourceAdapterLookup.get(resourceClass);
 		if (resourceList == null) {
+			int generation = lookupGeneration;
 			resourceList = addContributorsFor(resourceClass);
 			if (resourceList.size() == 0) {
 				resourceList = Collections.EMPTY_LIST;
 			} else {
 				resourceList = Collections.unmodifiableList(filterOnlyAdaptableContributors(resourceList));
 			}
-			cacheResourceAdapterLookup(resourceClass, resourceList);
+			cacheLookup(resourceAdapterLookup, resourceClass, resourceList, generation);
 		}
 		return resourceList;
 	}
@@ -472,14 +540,12 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
      * @since 3.1
      */
 	protected List getAdaptableContributors(String adapterType) {
-		List adaptableList = null;
 		// Lookup the results in the cache first, there are two caches
 		// one that stores non-adapter contributions and the other
 		// contains adapter contributions.
-		if (adaptableLookup != null) {
-			adaptableList = (List) adaptableLookup.get(adapterType);
-		}
+		List adaptableList = (List) adaptableLookup.get(adapterType);
 		if (adaptableList == null) {
+			int generation = lookupGeneration;
 			// ignore resource adapters because these must be adapted via the
 			// IContributorResourceAdapter.
 			if (LegacyResourceSupport.isResourceType(adapterType) || LegacyResourceSupport.isResourceMappingType(adapterType)) {
@@ -493,7 +559,7 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 					adaptableList = Collections.unmodifiableList(filterOnlyAdaptableContributors(adaptableList));
 				}
 			}
-			cacheAdaptableLookup(adapterType, adaptableList);
+			cacheLookup(adaptableLookup, adapterType, adaptableList, generation);
 		}
 		return adaptableList;
 	}
@@ -508,7 +574,7 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 	protected void removeCommonAdapters(List adapters, List results) {
     	for (Iterator it = results.iterator(); it.hasNext();) {
 			Class clazz = ((Class) it.next());
-			List commonTypes = computeCombinedOrder(clazz);
+			List commonTypes = getTypeHierarchy(clazz).combinedOrder;
 			for (Iterator it2 = commonTypes.iterator(); it2.hasNext();) {
 				Class type = (Class) it2.next();
 				adapters.remove(type.getName());	
@@ -563,6 +629,8 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
                 contributorRecordSet.remove(contributorRecord);
             }
         }
+        // release the classes of the plug-in that may be going away
+        typeHierarchies.clear();
     }
 
     /**
@@ -690,9 +758,10 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
         
         // Compute all the super classes, interfaces, and adapters 
         // for the first element.
-        List classes = computeClassOrder(objects.get(0).getClass());
+        TypeHierarchy hierarchy = getTypeHierarchy(objects.get(0).getClass());
+        List classes = new ArrayList(hierarchy.classOrder);
         List adapters = computeAdapterOrder(classes);
-        List interfaces = computeInterfaceOrder(classes);
+        List interfaces = new ArrayList(hierarchy.interfaceOrder);
 
         // Cache of all types found in the selection - this is needed
         // to compute common adapters.
@@ -703,15 +772,23 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 
         // Traverse the selection if there is more than one element selected.
         for (int i = 1; i < objects.size(); i++) {
+            Class otherClass = objects.get(i).getClass();
+            // An element of the same class as the previously processed one
+            // does not change the common types
+            if (i > 1 && otherClass == objects.get(i - 1).getClass()) {
+                continue;
+            }
+            hierarchy = getTypeHierarchy(otherClass);
+
             // Compute all the super classes for the current element
-            List otherClasses = computeClassOrder(objects.get(i).getClass());
+            List otherClasses = hierarchy.classOrder;
             if (!classesEmpty) {
                 classesEmpty = extractCommonClasses(classes, otherClasses);
             }
 
             // Compute all the interfaces for the current element
             // and all of its super classes.
-            List otherInterfaces = computeInterfaceOrder(otherClasses);
+            List otherInterfaces = hierarchy.interfaceOrder;
             if (!interfacesEmpty) {
                 interfacesEmpty = extractCommonClasses(interfaces,
                         otherInterfaces);
@@ -991,8 +1068,8 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
      * two input classes.
      */
     private Class getCommonClass(Class class1, Class class2) {
-        List list1 = computeCombinedOrder(class1);
-        List list2 = computeCombinedOrder(class2);
+        List list1 = getTypeHierarchy(class1).combinedOrder;
+        List list2 = getTypeHierarchy(class2).combinedOrder;
         for (int i = 0; i < list1.size(); i++) {
             for (int j = 0; j < list2.size(); j++) {
                 Class candidate1 = (Class) list1.get(i);
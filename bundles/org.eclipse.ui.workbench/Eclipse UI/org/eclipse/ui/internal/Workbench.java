@@ -27,10 +27,8 @@ import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Dictionary;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
@@ -206,6 +204,7 @@ import org.eclipse.ui.internal.keys.BindingService;
 import org.eclipse.ui.internal.menus.FocusControlSourceProvider;
 import org.eclipse.ui.internal.menus.WorkbenchMenuService;
 import org.eclipse.ui.internal.misc.Policy;
+import org.eclipse.ui.internal.misc.StartupProfiler;
 import org.eclipse.ui.internal.misc.StatusUtil;
 import org.eclipse.ui.internal.misc.UIStats;
 import org.eclipse.ui.internal.model.ContributionService;
@@ -1630,19 +1629,34 @@ public final class Workbench extends EventManager implements IWorkbench,
 			}
 		});
 
-		initializeLazyServices();
+		StartupProfiler.begin("initializeLazyServices"); //$NON-NLS-1$
+		try {
+			initializeLazyServices();
+		} finally {
+			StartupProfiler.end("initializeLazyServices"); //$NON-NLS-1$
+		}
 
 		// Initialize the activity support.
 
 		activityHelper = ActivityPersistanceHelper.getInstance();
-		StartupThreading.runWithoutExceptions(new StartupRunnable() {
+		StartupProfiler.begin("initializeImageRegistry"); //$NON-NLS-1$
+		try {
+			StartupThreading.runWithoutExceptions(new StartupRunnable() {
 
-			@Override
-			public void runWithException() {
-				WorkbenchImages.getImageRegistry();
-			}
-		});
-		initializeE4Services();
+				@Override
+				public void runWithException() {
+					WorkbenchImages.getImageRegistry();
+				}
+			});
+		} finally {
+			StartupProfiler.end("initializeImageRegistry"); //$NON-NLS-1$
+		}
+		StartupProfiler.begin("initializeE4Services"); //$NON-NLS-1$
+		try {
+			initializeE4Services();
+		} finally {
+			StartupProfiler.end("initializeE4Services"); //$NON-NLS-1$
+		}
 		IIntroRegistry introRegistry = WorkbenchPlugin.getDefault().getIntroRegistry();
 		if (introRegistry.getIntroCount() > 0) {
 			IProduct product = Platform.getProduct();
@@ -1651,20 +1665,45 @@ public final class Workbench extends EventManager implements IWorkbench,
 						.getId());
 			}
 		}
-		initializeDefaultServices();
-		initializeFonts();
-		initializeColors();
-		initializeApplicationColors();
+		StartupProfiler.begin("initializeDefaultServices"); //$NON-NLS-1$
+		try {
+			initializeDefaultServices();
+		} finally {
+			StartupProfiler.end("initializeDefaultServices"); //$NON-NLS-1$
+		}
+		StartupProfiler.begin("initializeFonts"); //$NON-NLS-1$
+		try {
+			initializeFonts();
+		} finally {
+			StartupProfiler.end("initializeFonts"); //$NON-NLS-1$
+		}
+		StartupProfiler.begin("initializeColors"); //$NON-NLS-1$
+		try {
+			initializeColors();
+		} finally {
+			StartupProfiler.end("initializeColors"); //$NON-NLS-1$
+		}
+		StartupProfiler.begin("initializeApplicationColors"); //$NON-NLS-1$
+		try {
+			initializeApplicationColors();
+		} finally {
+			StartupProfiler.end("initializeApplicationColors"); //$NON-NLS-1$
+		}
 
 		// now that the workbench is sufficiently initialized, let the advisor
 		// have a turn.
-		StartupThreading.runWithoutExceptions(new StartupRunnable() {
+		StartupProfiler.begin("advisorInitialize"); //$NON-NLS-1$
+		try {
+			StartupThreading.runWithoutExceptions(new StartupRunnable() {
 
-			@Override
-			public void runWithException() {
-				advisor.internalBasicInitialize(getWorkbenchConfigurer());
-			}
-		});
+				@Override
+				public void runWithException() {
+					advisor.internalBasicInitialize(getWorkbenchConfigurer());
+				}
+			});
+		} finally {
+			StartupProfiler.end("advisorInitialize"); //$NON-NLS-1$
+		}
 
 		// configure use of color icons in toolbars
 		boolean useColorIcons = PrefUtil.getInternalPreferenceStore().getBoolean(
@@ -1674,10 +1713,25 @@ public final class Workbench extends EventManager implements IWorkbench,
 		// initialize workbench single-click vs double-click behavior
 		initializeSingleClickOption();
 
-		initializeGlobalization();
-		initializeNLExtensions();
+		StartupProfiler.begin("initializeGlobalization"); //$NON-NLS-1$
+		try {
+			initializeGlobalization();
+		} finally {
+			StartupProfiler.end("initializeGlobalization"); //$NON-NLS-1$
+		}
+		StartupProfiler.begin("initializeNLExtensions"); //$NON-NLS-1$
+		try {
+			initializeNLExtensions();
+		} finally {
+			StartupProfiler.end("initializeNLExtensions"); //$NON-NLS-1$
+		}
 
-		initializeWorkbenchImages();
+		StartupProfiler.begin("initializeWorkbenchImages"); //$NON-NLS-1$
+		try {
+			initializeWorkbenchImages();
+		} finally {
+			StartupProfiler.end("initializeWorkbenchImages"); //$NON-NLS-1$
+		}
 
 		StartupThreading.runWithoutExceptions(new StartupRunnable() {
 
@@ -1690,6 +1744,7 @@ public final class Workbench extends EventManager implements IWorkbench,
 		// attempt to restore a previous workbench state
 		try {
 			UIStats.start(UIStats.RESTORE_WORKBENCH, "Workbench"); //$NON-NLS-1$
+			StartupProfiler.begin("restoreWorkbench"); //$NON-NLS-1$
 
 			final boolean bail[] = new boolean[1];
 			StartupThreading.runWithoutExceptions(new StartupRunnable() {
@@ -1713,6 +1768,7 @@ public final class Workbench extends EventManager implements IWorkbench,
 				return false;
 
 		} finally {
+			StartupProfiler.end("restoreWorkbench"); //$NON-NLS-1$
 			UIStats.end(UIStats.RESTORE_WORKBENCH, this, "Workbench"); //$NON-NLS-1$
 		}
 
@@ -2705,6 +2761,8 @@ UIEvents.Context.TOPIC_CONTEXT,
 		return result;
 	}
 
+	private volatile EarlyStartupScheduler earlyStartupScheduler;
+
 	/**
 	 * Returns the ids of the early activated plug-ins that have been disabled
 	 * by the user.
@@ -2736,37 +2794,22 @@ UIEvents.Context.TOPIC_CONTEXT,
 		if (extensions.length == 0) {
 			return;
 		}
-		Job job = new Job("Workbench early startup") { //$NON-NLS-1$
-			@Override
-			protected IStatus run(IProgressMonitor monitor) {
-				HashSet disabledPlugins = new HashSet(Arrays
-						.asList(getDisabledEarlyActivatedPlugins()));
-				monitor.beginTask(WorkbenchMessages.Workbench_startingPlugins, extensions.length);
-				for (int i = 0; i < extensions.length; ++i) {
-					if (monitor.isCanceled() || !isRunning()) {
-						return Status.CANCEL_STATUS;
-					}
-					IExtension extension = extensions[i];
-
-					// if the plugin is not in the set of disabled plugins, then
-					// execute the code to start it
-					if (!disabledPlugins.contains(extension.getNamespace())) {
-						monitor.subTask(extension.getNamespace());
-						SafeRunner.run(new EarlyStartupRunnable(extension));
-					}
-					monitor.worked(1);
-				}
-				monitor.done();
-				return Status.OK_STATUS;
-			}
+		earlyStartupScheduler = new EarlyStartupScheduler(this, extensions);
+		earlyStartupScheduler.schedule();
+	}
 
-			@Override
-			public boolean belongsTo(Object family) {
-				return EARLY_STARTUP_FAMILY.equals(family);
-			}
-		};
-		job.setSystem(true);
-		job.schedule();
+	/**
+	 * Returns the time the early startup code of the given plug-in took.
+	 * 
+	 * @param pluginId
+	 *            the id of a plug-in extending the
+	 *            <code>org.eclipse.ui.startup</code> extension point
+	 * @return the time in milliseconds, or <code>-1</code> if the early
+	 *         startup code of the plug-in has not run (yet)
+	 */
+	public long getEarlyStartupTime(String pluginId) {
+		EarlyStartupScheduler scheduler = earlyStartupScheduler;
+		return scheduler == null ? -1 : scheduler.getStartupTime(pluginId);
 	}
 
 	/**
@@ -2796,6 +2839,7 @@ UIEvents.Context.TOPIC_CONTEXT,
 	 */
 	private int runUI() {
 		UIStats.start(UIStats.START_WORKBENCH, "Workbench"); //$NON-NLS-1$
+		StartupProfiler.begin("startWorkbench"); //$NON-NLS-1$
 
 		// deadlock code
 		boolean avoidDeadlock = true;
@@ -2877,7 +2921,12 @@ UIEvents.Context.TOPIC_CONTEXT,
 							// declare us to be a startup thread so that our
 							// syncs will be executed
 							UISynchronizer.startupThread.set(Boolean.TRUE);
-							initOK[0] = Workbench.this.init();
+							StartupProfiler.begin("init"); //$NON-NLS-1$
+							try {
+								initOK[0] = Workbench.this.init();
+							} finally {
+								StartupProfiler.end("init"); //$NON-NLS-1$
+							}
 						} catch (Throwable e) {
 							error[0] = e;
 						} finally {
@@ -2913,13 +2962,23 @@ UIEvents.Context.TOPIC_CONTEXT,
 				}
 			} else {
 				// initialize workbench and restore or open one window
-				initOK[0] = init();
+				StartupProfiler.begin("init"); //$NON-NLS-1$
+				try {
+					initOK[0] = init();
+				} finally {
+					StartupProfiler.end("init"); //$NON-NLS-1$
+				}
 
 			}
 
 			// let the advisor run its start up code
 			if (initOK[0]) {
-				advisor.postStartup(); // may trigger a close/restart
+				StartupProfiler.begin("postStartup"); //$NON-NLS-1$
+				try {
+					advisor.postStartup(); // may trigger a close/restart
+				} finally {
+					StartupProfiler.end("postStartup"); //$NON-NLS-1$
+				}
 			}
 
 			if (initOK[0] && runEventLoop) {
@@ -2987,6 +3046,8 @@ UIEvents.Context.TOPIC_CONTEXT,
 					@Override
 					public void run() {
 						UIStats.end(UIStats.START_WORKBENCH, this, "Workbench"); //$NON-NLS-1$
+						StartupProfiler.end("startWorkbench"); //$NON-NLS-1$
+						StartupProfiler.writeReport();
 						UIStats.startupComplete();
 					}
 				});
@@ -579,6 +579,7 @@ public class WorkbenchMessages extends NLS {
 
 	// --- Startup preferences ---
 	public static String StartupPreferencePage_label;
+	public static String StartupPreferencePage_startupTime;
 
 	// ==============================================================================
 	// Property Pages
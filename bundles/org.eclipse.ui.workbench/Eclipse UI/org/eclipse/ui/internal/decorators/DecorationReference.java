@@ -30,6 +30,8 @@ class DecorationReference {
 
 	IDecorationContext[] contexts;
 
+	boolean prioritized = false;
+
     DecorationReference(Object object, Object adaptedObject, IDecorationContext context) {
         this.contexts = new IDecorationContext[] { context} ;
 		Assert.isNotNull(object);
@@ -71,6 +73,22 @@ class DecorationReference {
         this.forceUpdate = forceUpdate;
     }
 
+    /**
+     * Return whether the element has been moved to the front of the
+     * decoration queue since it was queued.
+     * @return boolean
+     */
+    boolean isPrioritized() {
+        return prioritized;
+    }
+
+    /**
+     * Mark the element as moved to the front of the decoration queue.
+     */
+    void setPrioritized() {
+        prioritized = true;
+    }
+
     /**
      * Set the text that will be used to label the decoration
      * calculation.
@@ -101,6 +119,11 @@ class DecorationReference {
 	}
 
 	void addContext(IDecorationContext context) {
+		for (int i = 0; i < contexts.length; i++) {
+			if (contexts[i].equals(context)) {
+				return;
+			}
+		}
 		IDecorationContext[] newContexts = new IDecorationContext[contexts.length + 1];
 		System.arraycopy(contexts, 0, newContexts, 0, contexts.length);
 		newContexts[contexts.length] = context;
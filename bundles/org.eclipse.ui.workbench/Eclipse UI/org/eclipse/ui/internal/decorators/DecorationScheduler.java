@@ -12,12 +12,12 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.decorators;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -51,8 +51,12 @@ public class DecorationScheduler {
 	// decorated() method
 	Map resultCache = new HashMap();
 
-	// Objects that need an icon and text computed for display to the user
-	List awaitingDecoration = new ArrayList();
+	// Objects that need an icon and text computed for display to the user.
+	// Elements asked for again while waiting are likely to be visible and
+	// are added once more at the front, so the queue may contain elements
+	// that have already been decorated; awaitingDecorationValues is the
+	// authoritative set of waiting elements.
+	Deque awaitingDecoration = new ArrayDeque();
 
 	// Objects that are awaiting a label update.
 	Set pendingUpdate = new HashSet();
@@ -146,6 +150,12 @@ public class DecorationScheduler {
 				reference.setForceUpdate(forceUpdate);
 			}
 			reference.addContext(context);
+			// Asked for again before it was decorated: the element is most
+			// likely being painted, so decorate it before the older requests
+			if (!reference.isPrioritized()) {
+				reference.setPrioritized();
+				awaitingDecoration.addFirst(element);
+			}
 		} else {
 			reference = new DecorationReference(element, adaptedElement,
 					context);
@@ -269,12 +279,19 @@ public class DecorationScheduler {
 	 */
 	synchronized DecorationReference nextElement() {
 
-		if (shutdown || awaitingDecoration.isEmpty()) {
+		if (shutdown) {
 			return null;
 		}
-		Object element = awaitingDecoration.remove(0);
-
-		return (DecorationReference) awaitingDecorationValues.remove(element);
+		Object element;
+		while ((element = awaitingDecoration.pollFirst()) != null) {
+			DecorationReference reference = (DecorationReference) awaitingDecorationValues
+					.remove(element);
+			// Skip elements that were prioritized and are already done
+			if (reference != null) {
+				return reference;
+			}
+		}
+		return null;
 	}
 
 	/**
@@ -335,7 +352,7 @@ public class DecorationScheduler {
 					// Only notify listeners when we have exhausted the
 					// queue of decoration requests.
 					synchronized (DecorationScheduler.this) {
-						if (awaitingDecoration.isEmpty()) {
+						if (awaitingDecorationValues.isEmpty()) {
 							decorated();
 						}
 					}
@@ -569,7 +586,7 @@ public class DecorationScheduler {
                 // Other decoration requests may have occurred due to
                 // updates or we may have timed out updating listeners.
                 // Only clear the results if there are none pending.
-                if (awaitingDecoration.isEmpty()) {
+                if (awaitingDecorationValues.isEmpty()) {
                     resultCache.clear();
                 }
             }
@@ -692,7 +709,7 @@ public class DecorationScheduler {
 	 * @return boolean
 	 */
 	public boolean processingUpdates() {
-		return !hasPendingUpdates() && !awaitingDecoration.isEmpty();
+		return !hasPendingUpdates() && !awaitingDecorationValues.isEmpty();
 	}
 
 	/**
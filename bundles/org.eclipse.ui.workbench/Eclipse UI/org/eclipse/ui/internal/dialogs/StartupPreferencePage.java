@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,7 @@ import org.eclipse.jface.preference.PreferencePage;
 import org.eclipse.jface.viewers.ArrayContentProvider;
 import org.eclipse.jface.viewers.LabelProvider;
 import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
@@ -90,9 +91,16 @@ public class StartupPreferencePage extends PreferencePage implements
 		viewer.setLabelProvider(new LabelProvider() {
 			@Override
 			public String getText(Object element) {
-				return (String) Platform.getBundle(((ContributionInfo) element).getBundleId())
-						.getHeaders().get(
-						Constants.BUNDLE_NAME);
+				String bundleId = ((ContributionInfo) element).getBundleId();
+				String name = (String) Platform.getBundle(bundleId).getHeaders()
+						.get(Constants.BUNDLE_NAME);
+				// show how long the early startup code took, if it has run
+				long time = workbench.getEarlyStartupTime(bundleId);
+				if (time < 0) {
+					return name;
+				}
+				return NLS.bind(WorkbenchMessages.StartupPreferencePage_startupTime, name,
+						Long.toString(time));
 			}
 		});
 		viewer.setContentProvider(ArrayContentProvider.getInstance());
@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.misc;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.ui.internal.WorkbenchPlugin;
+
+/**
+ * Records how long the phases of the workbench startup take and writes them
+ * to a file in the Chrome trace event format, which can be loaded into
+ * <code>chrome://tracing</code> or processed by scripts.
+ * <p>
+ * Profiling is enabled by setting the system property
+ * <code>org.eclipse.ui.startupProfile</code> to the path of the report file,
+ * e.g. <code>-Dorg.eclipse.ui.startupProfile=/tmp/startup.json</code> in the
+ * <code>eclipse.ini</code>. Each phase is reported as a complete event with
+ * the number of classes loaded during the phase. Phases may be nested and may
+ * run on different threads. The report is written once, when the workbench
+ * has finished starting; phases that end later are not reported.
+ * </p>
+ * <p>
+ * When the property is not set, {@link #begin(String)} and
+ * {@link #end(String)} return immediately.
+ * </p>
+ */
+public final class StartupProfiler {
+
+	/**
+	 * The system property holding the path of the report file.
+	 */
+	public static final String REPORT_PROPERTY = "org.eclipse.ui.startupProfile"; //$NON-NLS-1$
+
+	private static final String reportFile = System.getProperty(REPORT_PROPERTY);
+
+	/**
+	 * Whether startup profiling is enabled.
+	 */
+	public static final boolean ENABLED = reportFile != null && reportFile.length() > 0;
+
+	private static final long origin = System.nanoTime();
+
+	private static final ClassLoadingMXBean classLoading = ENABLED ? ManagementFactory
+			.getClassLoadingMXBean() : null;
+
+	/**
+	 * The completed phases. Guarded by itself.
+	 */
+	private static final List<Phase> phases = new ArrayList<Phase>();
+
+	/**
+	 * The names of the threads phases ran on, by thread id. Guarded by
+	 * {@link #phases}.
+	 */
+	private static final Map<Long, String> threadNames = new HashMap<Long, String>();
+
+	/**
+	 * Whether the report has been written. Guarded by {@link #phases}.
+	 */
+	private static boolean reported = false;
+
+	private static final ThreadLocal<LinkedList<Phase>> openPhases = new ThreadLocal<LinkedList<Phase>>() {
+		@Override
+		protected LinkedList<Phase> initialValue() {
+			return new LinkedList<Phase>();
+		}
+	};
+
+	/**
+	 * A startup phase. This class is public for testing purposes only.
+	 */
+	public static final class Phase {
+		final String name;
+		final long threadId;
+		final long start;
+		final long startClasses;
+		long duration;
+		long loadedClasses;
+
+		Phase(String name) {
+			this.name = name;
+			this.threadId = Thread.currentThread().getId();
+			this.startClasses = classLoading.getTotalLoadedClassCount();
+			this.start = System.nanoTime();
+		}
+
+		/**
+		 * Creates a completed phase. For testing purposes only.
+		 *
+		 * @param name
+		 *            the name of the phase
+		 * @param threadId
+		 *            the id of the thread the phase ran on
+		 * @param start
+		 *            the start of the phase, in nanoseconds
+		 * @param duration
+		 *            the duration of the phase, in nanoseconds
+		 * @param loadedClasses
+		 *            the number of classes loaded during the phase
+		 */
+		public Phase(String name, long threadId, long start, long duration, long loadedClasses) {
+			this.name = name;
+			this.threadId = threadId;
+			this.start = start;
+			this.startClasses = 0;
+			this.duration = duration;
+			this.loadedClasses = loadedClasses;
+		}
+	}
+
+	private StartupProfiler() {
+		// not instantiated
+	}
+
+	/**
+	 * Marks the start of a startup phase on the current thread.
+	 *
+	 * @param name
+	 *            the name of the phase
+	 */
+	public static void begin(String name) {
+		if (!ENABLED) {
+			return;
+		}
+		openPhases.get().addLast(new Phase(name));
+	}
+
+	/**
+	 * Marks the end of the startup phase that was last started on the current
+	 * thread. Phases that were started after it and not ended are discarded.
+	 *
+	 * @param name
+	 *            the name of the phase, as passed to {@link #begin(String)}
+	 */
+	public static void end(String name) {
+		if (!ENABLED) {
+			return;
+		}
+		long now = System.nanoTime();
+		LinkedList<Phase> open = openPhases.get();
+		while (!open.isEmpty()) {
+			Phase phase = open.removeLast();
+			if (phase.name.equals(name)) {
+				phase.duration = now - phase.start;
+				phase.loadedClasses = classLoading.getTotalLoadedClassCount()
+						- phase.startClasses;
+				synchronized (phases) {
+					phases.add(phase);
+					Long threadId = Long.valueOf(phase.threadId);
+					if (!threadNames.containsKey(threadId)) {
+						threadNames.put(threadId, Thread.currentThread().getName());
+					}
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Writes the phases recorded so far to the report file. Only the first
+	 * call writes a report.
+	 */
+	public static void writeReport() {
+		if (!ENABLED) {
+			return;
+		}
+		String report;
+		synchronized (phases) {
+			if (reported) {
+				return;
+			}
+			reported = true;
+			report = toTraceEvents(threadNames, phases, origin);
+		}
+
+		Writer writer = null;
+		try {
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reportFile),
+					"UTF-8")); //$NON-NLS-1$
+			writer.write(report);
+		} catch (IOException e) {
+			WorkbenchPlugin.log("Unable to write the startup profile to " + reportFile, e); //$NON-NLS-1$
+		} finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the given phases in the Chrome trace event format. This method
+	 * is public for testing purposes only.
+	 *
+	 * @param threadNames
+	 *            the names of the threads the phases ran on, by thread id
+	 * @param phases
+	 *            the completed phases
+	 * @param origin
+	 *            the time reported as 0, in nanoseconds
+	 * @return the trace events
+	 */
+	public static String toTraceEvents(Map<Long, String> threadNames, List<Phase> phases,
+			long origin) {
+		StringBuffer buffer = new StringBuffer(phases.size() * 128 + 64);
+		buffer.append("{\"traceEvents\":["); //$NON-NLS-1$
+		boolean first = true;
+		for (Map.Entry<Long, String> entry : threadNames.entrySet()) {
+			if (!first) {
+				buffer.append(',');
+			}
+			first = false;
+			buffer.append("\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":"); //$NON-NLS-1$
+			buffer.append(entry.getKey());
+			buffer.append(",\"args\":{\"name\":"); //$NON-NLS-1$
+			appendString(buffer, entry.getValue());
+			buffer.append("}}"); //$NON-NLS-1$
+		}
+		for (Phase phase : phases) {
+			if (!first) {
+				buffer.append(',');
+			}
+			first = false;
+			buffer.append("\n{\"name\":"); //$NON-NLS-1$
+			appendString(buffer, phase.name);
+			buffer.append(",\"cat\":\"startup\",\"ph\":\"X\",\"pid\":1,\"tid\":"); //$NON-NLS-1$
+			buffer.append(phase.threadId);
+			buffer.append(",\"ts\":"); //$NON-NLS-1$
+			buffer.append((phase.start - origin) / 1000);
+			buffer.append(",\"dur\":"); //$NON-NLS-1$
+			buffer.append(phase.duration / 1000);
+			buffer.append(",\"args\":{\"loadedClasses\":"); //$NON-NLS-1$
+			buffer.append(phase.loadedClasses);
+			buffer.append("}}"); //$NON-NLS-1$
+		}
+		buffer.append("\n],\"displayTimeUnit\":\"ms\"}\n"); //$NON-NLS-1$
+		return buffer.toString();
+	}
+
+	private static void appendString(StringBuffer buffer, String value) {
+		buffer.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+			case '\\':
+				buffer.append('\\').append(c);
+				break;
+			default:
+				if (c < 0x20) {
+					String hex = Integer.toHexString(c);
+					buffer.append("\\u"); //$NON-NLS-1$
+					for (int j = hex.length(); j < 4; j++) {
+						buffer.append('0');
+					}
+					buffer.append(hex);
+				} else {
+					buffer.append(c);
+				}
+			}
+		}
+		buffer.append('"');
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2006 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -57,10 +57,12 @@ public class UIStats {
 	
 	public static final int CONTENT_TYPE_LOOKUP = 14;
 
+	public static final int EARLY_STARTUP = 15;
+
     /**
      * Change this value when you add a new event constant.
      */
-    public static final int LAST_VALUE = CONTENT_TYPE_LOOKUP;
+    public static final int LAST_VALUE = EARLY_STARTUP;
 
     private static boolean debug[] = new boolean[LAST_VALUE+1];
 
@@ -82,6 +84,7 @@ public class UIStats {
         events[NOTIFY_PERSPECTIVE_LISTENERS] = PlatformUI.PLUGIN_ID + "/perf/perspective.listeners"; //$NON-NLS-1$
         events[UI_JOB] = PlatformUI.PLUGIN_ID + "/perf/uijob"; //$NON-NLS-1$
 		events[CONTENT_TYPE_LOOKUP] = PlatformUI.PLUGIN_ID + "/perf/contentTypes"; //$NON-NLS-1$
+		events[EARLY_STARTUP] = PlatformUI.PLUGIN_ID + "/perf/earlyStartup"; //$NON-NLS-1$
 
         for (int i = 0; i <= LAST_VALUE; i++) {
         	//don't log any performance events if the general performance stats is disabled
@@ -110,7 +113,10 @@ public class UIStats {
      */
     public static void start(int event, String label) {
         if (debug[event]) {
-			operations.put(event + label, new Long(System.currentTimeMillis()));
+        	// early startup events are reported from several threads
+        	synchronized (operations) {
+        		operations.put(event + label, new Long(System.currentTimeMillis()));
+        	}
 		}
     }
 
@@ -124,7 +130,10 @@ public class UIStats {
      */
    	public static void end(int event, Object blame, String label) {
         if (debug[event]) {
-            Long startTime = (Long) operations.remove(event + label);
+            Long startTime;
+            synchronized (operations) {
+            	startTime = (Long) operations.remove(event + label);
+            }
             if (startTime == null) {
 				return;
 			}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2010 IBM Corporation and others.
+ * Copyright (c) 2005, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,8 +11,11 @@
 package org.eclipse.ui.internal.progress;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.eclipse.jface.dialogs.IDialogConstants;
 import org.eclipse.jface.resource.JFaceResources;
@@ -51,6 +54,13 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 
 	private Composite noEntryArea;
 
+	/*
+	 * Whether an update of the minimum size of the scrolled content is
+	 * pending. Refreshes of single items only mark the size as stale so that
+	 * the size is computed once for a batch of refreshes.
+	 */
+	private boolean minSizeUpdatePending = false;
+
 	/**
 	 * Create a new instance of the receiver with a control that is a child of
 	 * parent with style style.
@@ -160,9 +170,12 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 				newItems.add(existingChildren[i].getData());
 		}
 
+		Set added = new HashSet(elements.length);
 		for (int i = 0; i < elements.length; i++) {
-			if (elements[i] != null)
+			if (elements[i] != null) {
 				newItems.add(elements[i]);
+				added.add(elements[i]);
+			}
 		}
 
 		JobTreeElement[] infos = new JobTreeElement[newItems.size()];
@@ -172,16 +185,57 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 			sorter.sort(this, infos);
 		}
 
-		// Update with the new elements to prevent flash
+		updateItems(infos, added);
+	}
+
+	/**
+	 * Show the first {@link #MAX_DISPLAYED} of the sorted infos. Items that
+	 * are already showing one of the infos are kept and moved into place
+	 * rather than created again; only the kept items whose element is in
+	 * <code>changed</code> are refreshed.
+	 * 
+	 * @param infos
+	 *            the sorted elements to show
+	 * @param changed
+	 *            the elements to refresh if they are already showing, or
+	 *            <code>null</code> to refresh all of them
+	 */
+	private void updateItems(Object[] infos, Set changed) {
+		Control[] existingChildren = control.getChildren();
+		Map existingItems = new HashMap(existingChildren.length);
 		for (int i = 0; i < existingChildren.length; i++) {
-			((ProgressInfoItem) existingChildren[i]).dispose();
+			Object data = existingChildren[i].getData();
+			if (data == null || existingItems.containsKey(data)) {
+				existingChildren[i].dispose();
+			} else {
+				existingItems.put(data, existingChildren[i]);
+			}
 		}
 
-		int totalSize = Math.min(newItems.size(), MAX_DISPLAYED);
+		int totalSize = Math.min(infos.length, MAX_DISPLAYED);
 
+		Control previous = null;
 		for (int i = 0; i < totalSize; i++) {
-			ProgressInfoItem item = createNewItem(infos[i]);
+			ProgressInfoItem item = (ProgressInfoItem) existingItems
+					.remove(infos[i]);
+			if (item == null) {
+				item = createNewItem((JobTreeElement) infos[i]);
+			} else if (changed == null || changed.contains(infos[i])) {
+				item.refresh();
+			}
+			if (previous == null) {
+				item.moveAbove(null);
+			} else {
+				item.moveBelow(previous);
+			}
 			item.setColor(i);
+			previous = item;
+		}
+
+		// Dispose the items that are no longer displayed
+		Iterator remaining = existingItems.values().iterator();
+		while (remaining.hasNext()) {
+			((Control) remaining.next()).dispose();
 		}
 
 		control.layout(true);
@@ -406,12 +460,32 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 		}
 		((ProgressInfoItem) widget).refresh();
 
-		// Update the minimum size
-		Point size = control.computeSize(SWT.DEFAULT, SWT.DEFAULT);
-		size.x += IDialogConstants.HORIZONTAL_SPACING;
-		size.y += IDialogConstants.VERTICAL_SPACING;
+		scheduleMinSizeUpdate();
+	}
 
-		scrolled.setMinSize(size);
+	/**
+	 * Update the minimum size of the scrolled content once the current batch
+	 * of refreshes is done.
+	 */
+	private void scheduleMinSizeUpdate() {
+		if (minSizeUpdatePending) {
+			return;
+		}
+		minSizeUpdatePending = true;
+		control.getDisplay().asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				minSizeUpdatePending = false;
+				if (control.isDisposed()) {
+					return;
+				}
+				Point size = control.computeSize(SWT.DEFAULT, SWT.DEFAULT);
+				size.x += IDialogConstants.HORIZONTAL_SPACING;
+				size.y += IDialogConstants.VERTICAL_SPACING;
+
+				scrolled.setMinSize(size);
+			}
+		});
 	}
 
 	/*
@@ -501,25 +575,7 @@ public class DetailedProgressViewer extends AbstractProgressViewer {
 	 * Refresh everything as the root is being refreshed.
 	 */
 	private void refreshAll() {
-
-		Object[] infos = getSortedChildren(getRoot());
-		Control[] existingChildren = control.getChildren();
-
-		for (int i = 0; i < existingChildren.length; i++) {
-			existingChildren[i].dispose();
-
-		}
-		
-		int maxLength = Math.min(infos.length,MAX_DISPLAYED);
-		// Create new ones if required
-		for (int i = 0; i < maxLength; i++) {
-			ProgressInfoItem item = createNewItem((JobTreeElement) infos[i]);
-			item.setColor(i);
-		}
-
-		control.layout(true);
-		updateForShowingProgress();
-
+		updateItems(getSortedChildren(getRoot()), null);
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2012 IBM Corporation and others.
+ * Copyright (c) 2003, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -37,7 +37,7 @@ public class JobInfo extends JobTreeElement {
 
     private GroupInfo parent;
 
-    private TaskInfo taskInfo;
+    private volatile TaskInfo taskInfo;
 
     //Default to no progress
     private int ticks = -1;
@@ -66,13 +66,14 @@ public class JobInfo extends JobTreeElement {
      * @param workIncrement
      */
     void addWork(double workIncrement) {
-        if (taskInfo == null) {
+        TaskInfo info = taskInfo;
+        if (info == null) {
 			return;
 		}
         if (parent == null || ticks < 1) {
-			taskInfo.addWork(workIncrement);
+			info.addWork(workIncrement);
 		} else {
-			taskInfo.addWork(workIncrement, parent, ticks);
+			info.addWork(workIncrement, parent, ticks);
 		}
     }
 
@@ -361,7 +362,7 @@ public class JobInfo extends JobTreeElement {
         	if(info.totalWork == 0) {
 				return 0;
 			}
-            return (int) info.preWork * 100 / info.totalWork;
+            return (int) info.getWork() * 100 / info.totalWork;
         }
         return IProgressMonitor.UNKNOWN;
     }
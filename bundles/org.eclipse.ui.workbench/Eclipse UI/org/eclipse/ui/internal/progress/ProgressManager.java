@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2013 IBM Corporation and others.
+ * Copyright (c) 2003, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,11 +23,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IProgressMonitorWithBlocking;
 import org.eclipse.core.runtime.IStatus;
@@ -43,6 +45,7 @@ import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.core.runtime.jobs.ProgressProvider;
+import org.eclipse.e4.ui.internal.workbench.ProgressOwnership;
 import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.operation.IRunnableContext;
 import org.eclipse.jface.operation.IRunnableWithProgress;
@@ -92,10 +95,14 @@ public class ProgressManager extends ProgressProvider implements
 
 	private static ProgressManager singleton;
 
-	final private Map jobs = Collections.synchronizedMap(new HashMap());
+	final private ConcurrentMap jobs = new ConcurrentHashMap();
 
-	final private Map familyListeners = Collections
-			.synchronizedMap(new HashMap());
+	/*
+	 * The IJobBusyListeners by family. The listener sets are copy on write so
+	 * that they can be read without locking while jobs change state; changes
+	 * to the map are synchronized on the map.
+	 */
+	final private Map familyListeners = new ConcurrentHashMap();
 
 	//	list of IJobProgressManagerListener
 	private ListenerList listeners = new ListenerList();
@@ -127,7 +134,7 @@ public class ProgressManager extends ProgressProvider implements
 	 */
 	public static final String BLOCKED_JOB_KEY = "LOCKED_JOB"; //$NON-NLS-1$
 
-	final Map runnableMonitors = Collections.synchronizedMap(new HashMap());
+	final ConcurrentMap runnableMonitors = new ConcurrentHashMap();
 
 	// A table that maps families to keys in the Jface image
 	// table
@@ -176,6 +183,18 @@ public class ProgressManager extends ProgressProvider implements
 
 		IProgressMonitorWithBlocking listener;
 
+		/*
+		 * The progress last reported to the IJobProgressManagerListeners.
+		 * Work is only reported when it changes the displayed progress, so
+		 * that chatty monitors do not flood the listeners with refreshes. Only
+		 * accessed by the thread running the job.
+		 */
+		private int reportedPercentDone = IProgressMonitor.UNKNOWN;
+
+		private int reportedTaskPercentDone = IProgressMonitor.UNKNOWN;
+
+		private int reportedGroupPercentDone = IProgressMonitor.UNKNOWN;
+
 		/**
 		 * Create a monitor on the supplied job.
 		 * 
@@ -196,7 +215,7 @@ public class ProgressManager extends ProgressProvider implements
 			TaskInfo currentTask = info.getTaskInfo();
 			if (currentTask != null) {
 				listener.beginTask(currentTaskName, currentTask.totalWork);
-				listener.internalWorked(currentTask.preWork);
+				listener.internalWorked(currentTask.getWork());
 			}
 		}
 
@@ -243,13 +262,41 @@ public class ProgressManager extends ProgressProvider implements
 			JobInfo info = getJobInfo(job);
 			if (info.hasTaskInfo()) {
 				info.addWork(work);
-				refreshJobInfo(info);
+				if (updateReportedProgress(info)) {
+					refreshJobInfo(info);
+				}
 			}
 			if (listener != null) {
 				listener.internalWorked(work);
 			}
 		}
 
+		/**
+		 * Remember the progress of the info if it differs from the progress
+		 * last reported.
+		 * 
+		 * @param info
+		 * @return <code>true</code> if the displayed progress has changed
+		 */
+		private boolean updateReportedProgress(JobInfo info) {
+			TaskInfo task = info.getTaskInfo();
+			GroupInfo group = info.getGroupInfo();
+			int percentDone = info.getPercentDone();
+			int taskPercentDone = task == null ? IProgressMonitor.UNKNOWN : task
+					.getPercentDone();
+			int groupPercentDone = group == null ? IProgressMonitor.UNKNOWN : group
+					.getPercentDone();
+			if (percentDone == reportedPercentDone
+					&& taskPercentDone == reportedTaskPercentDone
+					&& groupPercentDone == reportedGroupPercentDone) {
+				return false;
+			}
+			reportedPercentDone = percentDone;
+			reportedTaskPercentDone = taskPercentDone;
+			reportedGroupPercentDone = groupPercentDone;
+			return true;
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * 
@@ -378,8 +425,7 @@ public class ProgressManager extends ProgressProvider implements
 
 		notificationListener = createNotificationListener();
 
-		Job.getJobManager().setProgressProvider(this);
-		Job.getJobManager().addJobChangeListener(this.changeListener);
+		ProgressOwnership.acquire(this, this.changeListener);
 		StatusManager.getManager().addListener(notificationListener);
 	}
 
@@ -657,17 +703,15 @@ public class ProgressManager extends ProgressProvider implements
 	 * @return IProgressMonitor
 	 */
 	public JobMonitor progressFor(Job job) {
-
-		synchronized (runnableMonitors) {
-			JobMonitor monitor = (JobMonitor) runnableMonitors.get(job);
-			if (monitor == null) {
-				monitor = new JobMonitor(job);
-				runnableMonitors.put(job, monitor);
+		JobMonitor monitor = (JobMonitor) runnableMonitors.get(job);
+		if (monitor == null) {
+			monitor = new JobMonitor(job);
+			JobMonitor existing = (JobMonitor) runnableMonitors.putIfAbsent(job, monitor);
+			if (existing != null) {
+				monitor = existing;
 			}
-			
-			return monitor;
 		}
-
+		return monitor;
 	}
 
 	/**
@@ -699,7 +743,10 @@ public class ProgressManager extends ProgressProvider implements
 		JobInfo info = internalGetJobInfo(job);
 		if (info == null) {
 			info = new JobInfo(job);
-			jobs.put(job, info);
+			JobInfo existing = (JobInfo) jobs.putIfAbsent(job, info);
+			if (existing != null) {
+				info = existing;
+			}
 		}
 		return info;
 	}
@@ -867,19 +914,17 @@ public class ProgressManager extends ProgressProvider implements
 	 * @return JobInfo[]
 	 */
 	public JobInfo[] getJobInfos(boolean debug) {
-		synchronized (jobs) {
-			Iterator iterator = jobs.keySet().iterator();
-			Collection result = new ArrayList();
-			while (iterator.hasNext()) {
-				Job next = (Job) iterator.next();
-				if (!isCurrentDisplaying(next, debug)) {
-					result.add(jobs.get(next));
-				}
+		Iterator iterator = jobs.values().iterator();
+		Collection result = new ArrayList();
+		while (iterator.hasNext()) {
+			JobInfo next = (JobInfo) iterator.next();
+			if (!isCurrentDisplaying(next.getJob(), debug)) {
+				result.add(next);
 			}
-			JobInfo[] infos = new JobInfo[result.size()];
-			result.toArray(infos);
-			return infos;
 		}
+		JobInfo[] infos = new JobInfo[result.size()];
+		result.toArray(infos);
+		return infos;
 	}
 
 	/**
@@ -889,25 +934,22 @@ public class ProgressManager extends ProgressProvider implements
 	 * @return JobTreeElement[]
 	 */
 	public JobTreeElement[] getRootElements(boolean debug) {
-		synchronized (jobs) {
-			Iterator iterator = jobs.keySet().iterator();
-			Collection result = new HashSet();
-			while (iterator.hasNext()) {
-				Job next = (Job) iterator.next();
-				if (!isCurrentDisplaying(next, debug)) {
-					JobInfo jobInfo = (JobInfo) jobs.get(next);
-					GroupInfo group = jobInfo.getGroupInfo();
-					if (group == null) {
-						result.add(jobInfo);
-					} else {
-						result.add(group);
-					}
+		Iterator iterator = jobs.values().iterator();
+		Collection result = new HashSet();
+		while (iterator.hasNext()) {
+			JobInfo jobInfo = (JobInfo) iterator.next();
+			if (!isCurrentDisplaying(jobInfo.getJob(), debug)) {
+				GroupInfo group = jobInfo.getGroupInfo();
+				if (group == null) {
+					result.add(jobInfo);
+				} else {
+					result.add(group);
 				}
 			}
-			JobTreeElement[] infos = new JobTreeElement[result.size()];
-			result.toArray(infos);
-			return infos;
 		}
+		JobTreeElement[] infos = new JobTreeElement[result.size()];
+		result.toArray(infos);
+		return infos;
 	}
 
 	/**
@@ -916,13 +958,7 @@ public class ProgressManager extends ProgressProvider implements
 	 * @return boolean
 	 */
 	public boolean hasJobInfos() {
-		synchronized (jobs) {
-			Iterator iterator = jobs.keySet().iterator();
-			while (iterator.hasNext()) {
-				return true;
-			}
-			return false;
-		}
+		return !jobs.isEmpty();
 	}
 
 	/**
@@ -1053,8 +1089,7 @@ public class ProgressManager extends ProgressProvider implements
 	 */
 	private void shutdown() {
 		listeners.clear();
-		Job.getJobManager().setProgressProvider(null);
-		Job.getJobManager().removeJobChangeListener(this.changeListener);
+		ProgressOwnership.release(this);
 	}
 
 	/*
@@ -1088,16 +1123,20 @@ public class ProgressManager extends ProgressProvider implements
 	}
 
 	/**
-	 * Add the listener to the family.
+	 * Add the listener to the family. A <code>null</code> family is ignored,
+	 * as no job belongs to it.
 	 * 
 	 * @param family
 	 * @param listener
 	 */
 	void addListenerToFamily(Object family, IJobBusyListener listener) {
+		if (family == null) {
+			return;
+		}
 		synchronized (familyListeners) {
 			Collection currentListeners = (Collection) familyListeners.get(family);
 			if (currentListeners == null) {
-				currentListeners = new HashSet();
+				currentListeners = new CopyOnWriteArraySet();
 				familyListeners.put(family, currentListeners);
 			}
 			currentListeners.add(listener);
@@ -1133,27 +1172,22 @@ public class ProgressManager extends ProgressProvider implements
 	 * @return Collection of IJobBusyListener
 	 */
 	private Collection busyListenersForJob(Job job) {
-		if (job.isSystem()) {
+		if (job.isSystem() || familyListeners.isEmpty()) {
 			return Collections.EMPTY_LIST;
 		}
-		synchronized (familyListeners) {
 
-			if (familyListeners.isEmpty()) {
-				return Collections.EMPTY_LIST;
-			}
-
-			Iterator families = familyListeners.keySet().iterator();
-			Collection returnValue = new HashSet();
-			while (families.hasNext()) {
-				Object next = families.next();
-				if (job.belongsTo(next)) {
-					Collection currentListeners = (Collection) familyListeners
-							.get(next);
-					returnValue.addAll(currentListeners);
+		Iterator families = familyListeners.entrySet().iterator();
+		Collection returnValue = null;
+		while (families.hasNext()) {
+			Map.Entry next = (Map.Entry) families.next();
+			if (job.belongsTo(next.getKey())) {
+				if (returnValue == null) {
+					returnValue = new HashSet();
 				}
+				returnValue.addAll((Collection) next.getValue());
 			}
-			return returnValue;
 		}
+		return returnValue == null ? Collections.EMPTY_LIST : returnValue;
 	}
 
 	/*
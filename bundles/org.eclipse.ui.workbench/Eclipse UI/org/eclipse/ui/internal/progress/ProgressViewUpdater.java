@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2013 IBM Corporation and others.
+ * Copyright (c) 2003, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -43,10 +43,28 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 
 	/*
 	 * True when update job is scheduled or running. This is used to limit the
-	 * update job to no more than once every 100 ms. See bug 258352 and 395645.
+	 * update job to no more than once every updateDelay ms. See bug 258352
+	 * and 395645.
 	 */
 	MutableBoolean updateScheduled = new MutableBoolean();
 
+	/**
+	 * The shortest delay between two updates, in milliseconds.
+	 */
+	static final int MIN_UPDATE_DELAY = 100;
+
+	/**
+	 * The longest delay between two updates, in milliseconds.
+	 */
+	static final int MAX_UPDATE_DELAY = 1000;
+
+	/*
+	 * The delay before the next update. It grows with the time the collectors
+	 * took for the last update so that the updates take at most about a
+	 * fifth of the UI thread's time when many jobs report progress.
+	 */
+	volatile int updateDelay = MIN_UPDATE_DELAY;
+
     boolean debug;
     
    
@@ -239,7 +257,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 				}
         	}
 			if (scheduleUpdate)
-				updateJob.schedule(100);
+				updateJob.schedule(updateDelay);
         }
     }
 
@@ -265,6 +283,22 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 					return Status.CANCEL_STATUS;
 				}
 
+				long start = System.currentTimeMillis();
+				try {
+					updateCollectors();
+				} finally {
+					long elapsed = System.currentTimeMillis() - start;
+					updateDelay = (int) Math.min(MAX_UPDATE_DELAY,
+							Math.max(MIN_UPDATE_DELAY, elapsed * 4));
+				}
+
+				return Status.OK_STATUS;
+			}
+
+			/**
+			 * Pass the pending updates to the collectors.
+			 */
+			private void updateCollectors() {
 				if (currentInfo.updateAll) {
 					synchronized (updateLock) {
 						currentInfo.reset();
@@ -302,8 +336,6 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 						}
 					}
 				}
-
-				return Status.OK_STATUS;
 			}
 
 			/*
@@ -350,7 +382,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 				currentInfo.refresh(group);
 			}
         }
-        //Add in a 100ms delay so as to keep priority low
+        //Add in a delay so as to keep priority low
         scheduleUpdate();
 
     }
@@ -368,7 +400,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
         synchronized (updateLock) {
             currentInfo.refresh(info);
         }
-        //Add in a 100ms delay so as to keep priority low
+        //Add in a delay so as to keep priority low
         scheduleUpdate();
 
     }
@@ -381,7 +413,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
         synchronized (updateLock) {
             currentInfo.refresh(info);
         }
-        //Add in a 100ms delay so as to keep priority low
+        //Add in a delay so as to keep priority low
         scheduleUpdate();
 
     }
@@ -411,7 +443,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
             currentInfo.updateAll = true;
         }
 
-        //Add in a 100ms delay so as to keep priority low
+        //Add in a delay so as to keep priority low
         scheduleUpdate();
 
     }
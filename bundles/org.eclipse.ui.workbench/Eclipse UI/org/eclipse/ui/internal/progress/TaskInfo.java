@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2006 IBM Corporation and others.
+ * Copyright (c) 2003, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.progress;
 
+import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.osgi.util.NLS;
 
@@ -19,9 +20,13 @@ import org.eclipse.osgi.util.NLS;
  * deleted.
  */
 public class TaskInfo extends SubTaskInfo {
-	double preWork = 0;
+	/*
+	 * The work done so far, as the bits of a double so that it can be
+	 * updated without locking.
+	 */
+	private final AtomicLong preWork = new AtomicLong(Double.doubleToLongBits(0));
 
-	int totalWork = 0;
+	final int totalWork;
 
 	/**
 	 * Create a new instance of the receiver with the supplied total work and
@@ -47,8 +52,23 @@ public class TaskInfo extends SubTaskInfo {
 		if (totalWork == IProgressMonitor.UNKNOWN) {
 			return;
 		}
-		preWork += workIncrement;
+		while (true) {
+			long current = preWork.get();
+			long updated = Double.doubleToLongBits(Double.longBitsToDouble(current)
+					+ workIncrement);
+			if (preWork.compareAndSet(current, updated)) {
+				return;
+			}
+		}
+	}
 
+	/**
+	 * Return the amount of work done so far.
+	 * 
+	 * @return double
+	 */
+	double getWork() {
+		return Double.longBitsToDouble(preWork.get());
 	}
 
 	/**
@@ -136,7 +156,7 @@ public class TaskInfo extends SubTaskInfo {
 			return IProgressMonitor.UNKNOWN;
 		}
 
-		return Math.min((int) (preWork * 100 / totalWork), 100);
+		return Math.min((int) (getWork() * 100 / totalWork), 100);
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -27,10 +27,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.StringTokenizer;
 import org.eclipse.core.commands.common.EventManager;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -39,6 +42,8 @@ import org.eclipse.core.runtime.IExtensionPoint;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.content.IContentTypeManager.ContentTypeChangeEvent;
+import org.eclipse.core.runtime.content.IContentTypeManager.IContentTypeChangeListener;
 import org.eclipse.core.runtime.dynamichelpers.ExtensionTracker;
 import org.eclipse.core.runtime.dynamichelpers.IExtensionChangeHandler;
 import org.eclipse.core.runtime.dynamichelpers.IExtensionTracker;
@@ -58,6 +63,8 @@ import org.eclipse.ui.ISharedImages;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.WorkbenchException;
 import org.eclipse.ui.XMLMemento;
+import org.eclipse.ui.activities.ActivityManagerEvent;
+import org.eclipse.ui.activities.IActivityManagerListener;
 import org.eclipse.ui.activities.WorkbenchActivityHelper;
 import org.eclipse.ui.internal.IPreferenceConstants;
 import org.eclipse.ui.internal.IWorkbenchConstants;
@@ -153,6 +160,57 @@ public class EditorRegistry extends EventManager implements IEditorRegistry,
 
 	private RelatedRegistry relatedRegistry;
 
+	/**
+	 * The maximum number of file names and extensions whose editors and image
+	 * are remembered.
+	 */
+	private static final int RESOLUTION_CACHE_SIZE = 512;
+
+	/**
+	 * The editors and image resolved for a file name or extension. Fields are
+	 * filled on first use and guarded by resolutionLock. The values are
+	 * computed without holding the lock, as computing them calls into the
+	 * content type manager.
+	 */
+	private static final class Resolution {
+		boolean defaultEditorResolved;
+		IEditorDescriptor defaultEditor;
+		IEditorDescriptor[] editors;
+		ImageDescriptor image;
+	}
+
+	/**
+	 * A map that forgets the least recently used entries once it is full.
+	 */
+	private static final class ResolutionCache extends LinkedHashMap<String, Resolution> {
+		private static final long serialVersionUID = 1L;
+
+		ResolutionCache() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Resolution> eldest) {
+			return size() > RESOLUTION_CACHE_SIZE;
+		}
+	}
+
+	/*
+	 * Resolutions of file names that are mapped on their own, by lower case
+	 * name. All other file names share the resolution of their extension,
+	 * kept by lower case extension. Both guarded by resolutionLock.
+	 */
+	private final ResolutionCache nameResolutions = new ResolutionCache();
+	private final ResolutionCache extensionResolutions = new ResolutionCache();
+
+	/**
+	 * The lower case file names that content types are registered for, or
+	 * <code>null</code> if they have to be computed. Guarded by resolutionLock.
+	 */
+	private Set contentTypeFileNames;
+
+	private final Object resolutionLock = new Object();
+
 	public static final String EMPTY_EDITOR_ID = "org.eclipse.ui.internal.emptyEditorTab"; //$NON-NLS-1$
 
     /**
@@ -165,6 +223,23 @@ public class EditorRegistry extends EventManager implements IEditorRegistry,
         IExtensionTracker tracker = PlatformUI.getWorkbench().getExtensionTracker();
         tracker.registerHandler(this, ExtensionTracker.createExtensionPointFilter(getExtensionPointFilter()));
 		relatedRegistry = new RelatedRegistry();
+
+		Platform.getContentTypeManager().addContentTypeChangeListener(
+				new IContentTypeChangeListener() {
+					@Override
+					public void contentTypeChanged(ContentTypeChangeEvent event) {
+						invalidateResolutions();
+					}
+				});
+		PlatformUI.getWorkbench().getActivitySupport().getActivityManager()
+				.addActivityManagerListener(new IActivityManagerListener() {
+					@Override
+					public void activityManagerChanged(ActivityManagerEvent event) {
+						if (event.haveEnabledActivityIdsChanged()) {
+							invalidateResolutions();
+						}
+					}
+				});
     }
 
     /**
@@ -273,6 +348,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry,
 
         // Update editor map.
         mapIDtoEditor.put(editor.getId(), editor);
+        invalidateResolutions();
     }
 
     /**
@@ -349,6 +425,31 @@ public class EditorRegistry extends EventManager implements IEditorRegistry,
      */
     @Override
 	public IEditorDescriptor getDefaultEditor(String filename) {
+		Resolution resolution = getResolution(filename);
+		if (resolution == null) {
+			return resolveDefaultEditor(filename);
+		}
+		synchronized (resolutionLock) {
+			if (resolution.defaultEditorResolved) {
+				return resolution.defaultEditor;
+			}
+		}
+		IEditorDescriptor defaultEditor = resolveDefaultEditor(filename);
+		synchronized (resolutionLock) {
+			resolution.defaultEditor = defaultEditor;
+			resolution.defaultEditorResolved = true;
+		}
+		return defaultEditor;
+	}
+
+	/**
+	 * Return the default editor for a file with the given name, without
+	 * consulting the resolution cache.
+	 * 
+	 * @param filename the file name
+	 * @return the default editor or <code>null</code>
+	 */
+	private IEditorDescriptor resolveDefaultEditor(String filename) {
 		IEditorDescriptor defaultEditor = getDefaultEditor(filename, guessAtContentType(filename));
 		if (defaultEditor != null) {
 			return defaultEditor;
@@ -391,7 +492,22 @@ public class EditorRegistry extends EventManager implements IEditorRegistry,
      */
     @Override
 	public IEditorDescriptor[] getEditors(String filename) {
-		return getEditors(filename, guessAtContentType(filename));
+		Resolution resolution = getResolution(filename);
+		if (resolution == null) {
+			return getEditors(filename, guessAtContentType(filename));
+		}
+		IEditorDescriptor[] editors;
+		synchronized (resolutionLock) {
+			editors = resolution.editors;
+		}
+		if (editors == null) {
+			editors = getEditors(filename, guessAtContentType(filename));
+			synchronized (resolutionLock) {
+				resolution.editors = editors;
+			}
+		}
+		// callers may modify the returned array
+		return (IEditorDescriptor[]) editors.clone();
 	}
 
     /*
@@ -421,7 +537,86 @@ public class EditorRegistry extends EventManager implements IEditorRegistry,
      */
     @Override
 	public ImageDescriptor getImageDescriptor(String filename) {
-		return getImageDescriptor(filename, guessAtContentType(filename));
+		Resolution resolution = getResolution(filename);
+		if (resolution == null) {
+			return getImageDescriptor(filename, guessAtContentType(filename));
+		}
+		ImageDescriptor image;
+		synchronized (resolutionLock) {
+			image = resolution.image;
+		}
+		if (image == null) {
+			image = getImageDescriptor(filename, guessAtContentType(filename));
+			synchronized (resolutionLock) {
+				resolution.image = image;
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Return the cached resolution for a file with the given name. Files whose
+	 * name is neither mapped to editors nor registered with a content type
+	 * resolve like any other file with the same extension, so they share one
+	 * resolution.
+	 * 
+	 * @param filename
+	 *            the file name
+	 * @return the resolution, or <code>null</code> if the file name is
+	 *         <code>null</code>
+	 */
+	private Resolution getResolution(String filename) {
+		if (filename == null) {
+			return null;
+		}
+		String key = mappingKeyFor(filename);
+		synchronized (resolutionLock) {
+			ResolutionCache cache = nameResolutions;
+			int index = key.lastIndexOf('.');
+			if (index > -1 && typeEditorMappings.get(key) == null
+					&& !getContentTypeFileNames().contains(key)) {
+				key = key.substring(index + 1);
+				cache = extensionResolutions;
+			}
+			Resolution resolution = cache.get(key);
+			if (resolution == null) {
+				resolution = new Resolution();
+				cache.put(key, resolution);
+			}
+			return resolution;
+		}
+	}
+
+	/**
+	 * Return the lower case file names that content types are registered for.
+	 * Must be called while holding the resolution lock.
+	 */
+	private Set getContentTypeFileNames() {
+		if (contentTypeFileNames == null) {
+			Set names = new HashSet();
+			IContentType[] contentTypes = Platform.getContentTypeManager().getAllContentTypes();
+			for (int i = 0; i < contentTypes.length; i++) {
+				String[] specs = contentTypes[i].getFileSpecs(IContentType.FILE_NAME_SPEC);
+				for (int j = 0; j < specs.length; j++) {
+					names.add(mappingKeyFor(specs[j]));
+				}
+			}
+			contentTypeFileNames = names;
+		}
+		return contentTypeFileNames;
+	}
+
+	/**
+	 * Forget the resolved editors and images. Called when the file
+	 * associations, the content types, the editor extensions or the enabled
+	 * activities change.
+	 */
+	private void invalidateResolutions() {
+		synchronized (resolutionLock) {
+			nameResolutions.clear();
+			extensionResolutions.clear();
+			contentTypeFileNames = null;
+		}
 	}
 
 	/**
@@ -1126,6 +1321,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry,
         }
         extensionImages = new HashMap();
         rebuildEditorMap();
+        invalidateResolutions();
         firePropertyChange(PROP_CONTENTS);
     }
 
@@ -1142,6 +1338,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry,
         if (mapping[1] != null) {
 			mapping[1].setDefaultEditor(desc);
 		}
+        invalidateResolutions();
     }
 
     /**
@@ -1342,6 +1539,7 @@ public class EditorRegistry extends EventManager implements IEditorRegistry,
             }
 
         }
+        invalidateResolutions();
     }
 
     /**
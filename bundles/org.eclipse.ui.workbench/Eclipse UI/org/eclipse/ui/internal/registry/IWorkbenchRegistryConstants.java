@@ -101,6 +101,13 @@ public interface IWorkbenchRegistryConstants {
 	 */
 	public static String ATT_COMMAND_ID = "commandId"; //$NON-NLS-1$
 
+	/**
+	 * The name of the attribute of a startup element that tells whether its
+	 * early startup code may run concurrently with that of other plug-ins.
+	 * Value <code>concurrent</code>.
+	 */
+	public static String ATT_CONCURRENT = "concurrent"; //$NON-NLS-1$
+
 	/**
 	 * The name of the configuration attribute storing the scheme id for a
 	 * binding.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 IBM Corporation and others.
+ * Copyright (c) 2007, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -39,6 +39,7 @@ public class EvaluationReference extends RunAndTrack implements IEvaluationRefer
 	boolean participating = true;
 	boolean postingChanges = true;
 	boolean hasRun = false;
+	ExpressionResultCache resultCache;
 
 	public EvaluationReference(IEclipseContext context, Expression expression,
 			IPropertyChangeListener listener, String property) {
@@ -95,7 +96,11 @@ public class EvaluationReference extends RunAndTrack implements IEvaluationRefer
 			cache = true;
 		} else {
 			try {
-				cache = expression.evaluate(context) != EvaluationResult.FALSE;
+				if (resultCache != null && context instanceof ExpressionContext) {
+					cache = resultCache.evaluate(expression, (ExpressionContext) context);
+				} else {
+					cache = expression.evaluate(context) != EvaluationResult.FALSE;
+				}
 			} catch (CoreException e) {
 				Activator.trace(Policy.DEBUG_CMDS, "Failed to calculate active", e); //$NON-NLS-1$
 			}
@@ -61,6 +61,8 @@ public final class EvaluationService implements IEvaluationService {
 	LinkedList<EvaluationReference> refs = new LinkedList<EvaluationReference>();
 	private ISourceProviderListener contextUpdater;
 
+	private ExpressionResultCache resultCache = new ExpressionResultCache();
+
 	private HashSet<String> ratVariables = new HashSet<String>();
 	private RunAndTrack ratUpdater = new RunAndTrack() {
 		@Override
@@ -213,6 +215,7 @@ public final class EvaluationService implements IEvaluationService {
 			invalidate(ref, false);
 		}
 		refs.clear();
+		resultCache.clear();
 		serviceListeners.clear();
 	}
 
@@ -268,6 +271,10 @@ public final class EvaluationService implements IEvaluationService {
 	public void addEvaluationReference(IEvaluationReference ref) {
 		EvaluationReference eref = (EvaluationReference) ref;
 		refs.add(eref);
+		// a new reference evaluates its expression against the current state,
+		// which may have changed in ways the cached results do not track
+		resultCache.invalidate();
+		eref.resultCache = resultCache;
 		boolean changed = false;
 		if (eref.getExpression() != null) {
 			ExpressionInfo info = new ExpressionInfo();
@@ -335,6 +342,7 @@ public final class EvaluationService implements IEvaluationService {
 
 		String[] sourceNames = new String[] { propertyName };
 		startSourceChange(sourceNames);
+		resultCache.invalidate();
 		for (EvaluationReference ref : refs) {
 			Expression expr = ref.getExpression();
 			if (expr != null) {
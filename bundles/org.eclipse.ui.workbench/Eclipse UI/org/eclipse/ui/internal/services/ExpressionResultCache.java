@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.internal.services;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import org.eclipse.core.expressions.EvaluationResult;
+import org.eclipse.core.expressions.Expression;
+import org.eclipse.core.expressions.ExpressionInfo;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.e4.core.commands.ExpressionContext;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+
+/**
+ * Remembers the last result of each expression evaluated by the
+ * {@link EvaluationService}, together with the values of the variables the
+ * expression depends on. Equal expressions contributed by different handlers,
+ * menus or actions share one entry, so after a state change an expression is
+ * only evaluated by the first reference that needs it; the other references
+ * reuse the result as long as the variables still hold the same values.
+ * <p>
+ * Only expressions whose {@link ExpressionInfo} fully describes their inputs
+ * are cached. Expressions that test properties or system properties, or that
+ * do not report what they access, are always evaluated.
+ * </p>
+ * <p>
+ * The values of the accessed variables are read even when the cached result is
+ * used, so that a reference running in a
+ * {@link org.eclipse.e4.core.contexts.RunAndTrack} keeps tracking the same
+ * variables as if it had evaluated the expression itself.
+ * </p>
+ * <p>
+ * The context and the variable values of the last evaluation are only held
+ * weakly, so that the cache does not keep disposed contexts or deselected
+ * elements alive. An entry whose values have been collected is simply
+ * evaluated again.
+ * </p>
+ */
+final class ExpressionResultCache {
+
+	private static final class Entry {
+		final String[] variableNames;
+		final boolean defaultVariableAccess;
+		final boolean cacheable;
+
+		int generation = -1;
+		WeakReference<IEclipseContext> context;
+		WeakReference<Object>[] variableValues;
+		WeakReference<Object> defaultVariable;
+		boolean result;
+
+		Entry(ExpressionInfo info) {
+			variableNames = info.getAccessedVariableNames();
+			defaultVariableAccess = info.hasDefaultVariableAccess();
+			cacheable = info.getAccessedPropertyNames().length == 0
+					&& !info.hasSystemPropertyAccess()
+					&& info.getMisbehavingExpressionTypes() == null;
+		}
+	}
+
+	private final WeakHashMap<Expression, Entry> entries = new WeakHashMap<Expression, Entry>();
+
+	private int generation = 0;
+
+	/**
+	 * Evaluates the expression in the given context, or returns the result of
+	 * a previous evaluation of an equal expression if none of the variables it
+	 * accesses has changed since.
+	 *
+	 * @param expression
+	 *            the expression to evaluate, not <code>null</code>
+	 * @param context
+	 *            the context to evaluate the expression in
+	 * @return <code>false</code> if the expression evaluates to
+	 *         {@link EvaluationResult#FALSE}, <code>true</code> otherwise
+	 * @throws CoreException
+	 *             if the evaluation of the expression failed
+	 */
+	boolean evaluate(Expression expression, ExpressionContext context) throws CoreException {
+		Entry entry = entries.get(expression);
+		if (entry == null) {
+			entry = new Entry(expression.computeExpressionInfo());
+			entries.put(expression, entry);
+		}
+		if (!entry.cacheable) {
+			return expression.evaluate(context) != EvaluationResult.FALSE;
+		}
+
+		String[] names = entry.variableNames;
+		Object[] values = new Object[names.length];
+		for (int i = 0; i < names.length; i++) {
+			values[i] = context.getVariable(names[i]);
+		}
+		Object defaultVariable = entry.defaultVariableAccess ? context.getDefaultVariable() : null;
+
+		if (entry.generation == generation && entry.context != null
+				&& entry.context.get() == context.eclipseContext
+				&& sameValues(entry.variableValues, values)
+				&& equal(entry.defaultVariable, defaultVariable)) {
+			return entry.result;
+		}
+
+		boolean result = expression.evaluate(context) != EvaluationResult.FALSE;
+		entry.generation = generation;
+		entry.context = new WeakReference<IEclipseContext>(context.eclipseContext);
+		entry.variableValues = references(values);
+		entry.defaultVariable = reference(defaultVariable);
+		entry.result = result;
+		return result;
+	}
+
+	/**
+	 * Forgets all cached results. Used when a result may have changed without
+	 * any variable changing, e.g. when a property is re-evaluated on request.
+	 */
+	void invalidate() {
+		generation++;
+	}
+
+	/**
+	 * Drops all entries.
+	 */
+	void clear() {
+		entries.clear();
+		generation++;
+	}
+
+	/*
+	 * null values are stored as null references, so that a value that has been
+	 * collected can be told apart from a variable that was not set.
+	 */
+	private static WeakReference<Object> reference(Object value) {
+		return value == null ? null : new WeakReference<Object>(value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static WeakReference<Object>[] references(Object[] values) {
+		WeakReference<Object>[] references = new WeakReference[values.length];
+		for (int i = 0; i < values.length; i++) {
+			references[i] = reference(values[i]);
+		}
+		return references;
+	}
+
+	private static boolean sameValues(WeakReference<Object>[] cached, Object[] current) {
+		if (cached == null || cached.length != current.length) {
+			return false;
+		}
+		for (int i = 0; i < current.length; i++) {
+			if (cached[i] == null ? current[i] != null
+					: (current[i] == null || cached[i].get() != current[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * The default variable is usually derived from the selection and created
+	 * anew on each access, so it is compared by equality.
+	 */
+	private static boolean equal(WeakReference<Object> cached, Object current) {
+		if (cached == null) {
+			return current == null;
+		}
+		Object value = cached.get();
+		return value != null && value.equals(current);
+	}
+}
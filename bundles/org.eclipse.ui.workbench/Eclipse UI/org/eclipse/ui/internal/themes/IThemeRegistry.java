@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2011 IBM Corporation and others.
+ * Copyright (c) 2004, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,8 +10,12 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.themes;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,6 +36,13 @@ public interface IThemeRegistry {
 
         private IHierarchalThemeElementDefinition[] definitions;
 
+        /**
+         * The depth of each definition compared so far, by id. The depth of
+         * a definition is the length of its <code>defaultsTo</code> chain,
+         * where a missing ancestor ends the chain.
+         */
+        private Map depths = new HashMap();
+
         /**
          * Create a new comparator.
          * 
@@ -47,26 +58,52 @@ public interface IThemeRegistry {
          */
         @Override
 		public int compare(Object arg0, Object arg1) {
-            String def0 = arg0 == null ? null
-                    : ((IHierarchalThemeElementDefinition) arg0)
-                            .getDefaultsTo();
-            String def1 = arg1 == null ? null
-                    : ((IHierarchalThemeElementDefinition) arg1)
-                            .getDefaultsTo();
-
-            if (def0 == null && def1 == null) {
-				return 0;
-			}
+            int depth0 = getDepth((IHierarchalThemeElementDefinition) arg0);
+            int depth1 = getDepth((IHierarchalThemeElementDefinition) arg1);
+            return depth0 < depth1 ? -1 : (depth0 == depth1 ? 0 : 1);
+        }
 
-            if (def0 == null) {
-				return -1;
+        /**
+         * Returns the depth of the given definition, computing it and the
+         * depth of its ancestors only once per comparator.
+         * 
+         * @param definition the definition, may be <code>null</code>
+         * @return the depth
+         */
+        private int getDepth(IHierarchalThemeElementDefinition definition) {
+            if (definition == null || definition.getDefaultsTo() == null) {
+				return 0;
 			}
-
-            if (def1 == null) {
-				return 1;
+            Integer depth = (Integer) depths.get(definition.getId());
+            if (depth != null) {
+				return depth.intValue();
 			}
 
-            return compare(getDefaultsTo(def0), getDefaultsTo(def1));
+            // walk up to the first ancestor with a known depth
+            List chain = new ArrayList();
+            Set visited = new HashSet();
+            IHierarchalThemeElementDefinition current = definition;
+            int base = 0;
+            while (current != null && current.getDefaultsTo() != null) {
+                depth = (Integer) depths.get(current.getId());
+                if (depth != null) {
+                    base = depth.intValue();
+                    break;
+                }
+                if (!visited.add(current.getId())) {
+                    // a cycle, treat the repeated element as a root
+                    break;
+                }
+                chain.add(current);
+                current = getDefaultsTo(current.getDefaultsTo());
+            }
+
+            for (int i = chain.size() - 1; i >= 0; i--) {
+                base++;
+                depths.put(((IHierarchalThemeElementDefinition) chain.get(i))
+                        .getId(), new Integer(base));
+            }
+            return base;
         }
 
         /** 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2008 IBM Corporation and others.
+ * Copyright (c) 2004, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@
 package org.eclipse.ui.preferences;
 
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.commands.common.EventManager;
 import org.eclipse.core.runtime.Assert;
@@ -98,6 +99,86 @@ public class ScopedPreferenceStore extends EventManager implements
 	 */
 	private boolean dirty;
 
+	/**
+	 * The resolved values of the preferences looked up through the get
+	 * methods, by key. Entries are only valid while their generation matches
+	 * {@link #cacheGeneration}. Values are only cached while property change
+	 * listeners are attached, as the cache listener has to be registered with
+	 * the searched nodes, and the store must not stay reachable from them
+	 * once nobody listens to it.
+	 */
+	private final ConcurrentHashMap<String, CachedValue> valueCache = new ConcurrentHashMap<String, CachedValue>();
+
+	/**
+	 * Incremented whenever a value in one of the searched nodes changes.
+	 */
+	private volatile int cacheGeneration = 0;
+
+	/**
+	 * The nodes searched for values, including the default node, or
+	 * <code>null</code> if they have to be looked up again. Guarded by
+	 * {@link #cacheListener} when written.
+	 */
+	private volatile IEclipsePreferences[] searchNodes;
+
+	/**
+	 * Set when a searched node has been added or removed, or the search
+	 * contexts have changed, so that {@link #searchNodes} no longer is
+	 * accurate.
+	 */
+	private volatile boolean searchNodesStale = true;
+
+	/**
+	 * Invalidates the value cache when a searched node changes.
+	 */
+	private final CacheListener cacheListener = new CacheListener();
+
+	/**
+	 * A value resolved through the search nodes. The typed value is parsed on
+	 * first use and kept as long as it is requested with the same type.
+	 */
+	private static final class CachedValue {
+		final String value;
+		final int generation;
+		volatile Object typedValue;
+
+		CachedValue(String value, int generation) {
+			this.value = value;
+			this.generation = generation;
+		}
+	}
+
+	/**
+	 * Listens to the searched nodes and their parents. The listener does not
+	 * take any locks, as the preference nodes may notify it while holding
+	 * their own.
+	 */
+	private final class CacheListener implements
+			IEclipsePreferences.IPreferenceChangeListener, INodeChangeListener {
+		@Override
+		public void preferenceChange(PreferenceChangeEvent event) {
+			invalidateValueCache();
+		}
+
+		@Override
+		public void added(NodeChangeEvent event) {
+			nodeChanged(event);
+		}
+
+		@Override
+		public void removed(NodeChangeEvent event) {
+			nodeChanged(event);
+		}
+
+		private void nodeChanged(NodeChangeEvent event) {
+			String name = event.getChild().name();
+			if (name.equals(nodeQualifier) || name.equals(defaultQualifier)) {
+				searchNodesStale = true;
+				invalidateValueCache();
+			}
+		}
+	}
+
 	/**
 	 * Create a new instance of the receiver. Store the values in context in the
 	 * node looked up by qualifier. <strong>NOTE:</strong> Any instance of
@@ -326,6 +407,8 @@ public class ScopedPreferenceStore extends EventManager implements
 	 */
 	public void setSearchContexts(IScopeContext[] scopes) {
 		this.searchContexts = scopes;
+		searchNodesStale = true;
+		invalidateValueCache();
 		if (scopes == null) {
 			return;
 		}
@@ -352,8 +435,7 @@ public class ScopedPreferenceStore extends EventManager implements
 		if (name == null) {
 			return false;
 		}
-		return (Platform.getPreferencesService().get(name, null,
-				getPreferenceNodes(true))) != null;
+		return internalGet(name) != null;
 	}
 
 	/*
@@ -392,9 +474,19 @@ public class ScopedPreferenceStore extends EventManager implements
 	 */
 	@Override
 	public boolean getBoolean(String name) {
-		String value = internalGet(name);
-		return value == null ? BOOLEAN_DEFAULT_DEFAULT : Boolean.valueOf(value)
-				.booleanValue();
+		CachedValue cached = getCachedValue(name);
+		if (cached == null) {
+			String value = internalGet(name);
+			return value == null ? BOOLEAN_DEFAULT_DEFAULT : Boolean.valueOf(value)
+					.booleanValue();
+		}
+		Object typed = cached.typedValue;
+		if (!(typed instanceof Boolean)) {
+			typed = cached.value == null ? Boolean.valueOf(BOOLEAN_DEFAULT_DEFAULT)
+					: Boolean.valueOf(cached.value);
+			cached.typedValue = typed;
+		}
+		return ((Boolean) typed).booleanValue();
 	}
 
 	/*
@@ -465,7 +557,19 @@ public class ScopedPreferenceStore extends EventManager implements
 	 */
 	@Override
 	public double getDouble(String name) {
-		String value = internalGet(name);
+		CachedValue cached = getCachedValue(name);
+		if (cached == null) {
+			return parseDouble(internalGet(name));
+		}
+		Object typed = cached.typedValue;
+		if (!(typed instanceof Double)) {
+			typed = new Double(parseDouble(cached.value));
+			cached.typedValue = typed;
+		}
+		return ((Double) typed).doubleValue();
+	}
+
+	private static double parseDouble(String value) {
 		if (value == null) {
 			return DOUBLE_DEFAULT_DEFAULT;
 		}
@@ -486,8 +590,125 @@ public class ScopedPreferenceStore extends EventManager implements
 	 * @return String or <code>null</code> if the value does not exist.
 	 */
 	private String internalGet(String key) {
-		return Platform.getPreferencesService().get(key, null,
-				getPreferenceNodes(true));
+		CachedValue cached = getCachedValue(key);
+		if (cached == null) {
+			return Platform.getPreferencesService().get(key, null,
+					getPreferenceNodes(true));
+		}
+		return cached.value;
+	}
+
+	/**
+	 * Return the cached value for the specified key, looking it up in the
+	 * search nodes if it is not cached or the cache has been invalidated since.
+	 * When the value is cached, this method does not allocate.
+	 * 
+	 * @param key
+	 *            the key to search with
+	 * @return the cached value, or <code>null</code> if the key is
+	 *         <code>null</code> or values are not cached because no property
+	 *         change listeners are attached
+	 */
+	private CachedValue getCachedValue(String key) {
+		if (key == null) {
+			return null;
+		}
+		int generation = cacheGeneration;
+		CachedValue cached = valueCache.get(key);
+		if (cached != null && cached.generation == generation && !searchNodesStale) {
+			return cached;
+		}
+		IEclipsePreferences[] nodes = getSearchNodes();
+		if (nodes == null) {
+			return null;
+		}
+		// A change during the lookup increments the generation, so a value
+		// read before the change is never returned after it.
+		generation = cacheGeneration;
+		String value = null;
+		for (int i = 0; i < nodes.length && value == null; i++) {
+			value = nodes[i].get(key, null);
+		}
+		cached = new CachedValue(value, generation);
+		valueCache.put(key, cached);
+		return cached;
+	}
+
+	/**
+	 * Return the nodes to search for values, including the default node. The
+	 * nodes are looked up once and then observed by the cache listener until a
+	 * node is added or removed, the search contexts change or the last
+	 * property change listener is removed.
+	 * 
+	 * @return IEclipsePreferences[], must not be modified, or
+	 *         <code>null</code> if no property change listeners are attached
+	 */
+	private IEclipsePreferences[] getSearchNodes() {
+		IEclipsePreferences[] nodes = searchNodes;
+		if (nodes != null && !searchNodesStale) {
+			return nodes;
+		}
+		synchronized (cacheListener) {
+			if (searchNodes != null && !searchNodesStale) {
+				return searchNodes;
+			}
+			if (searchNodes != null) {
+				removeCacheListener(searchNodes);
+				searchNodes = null;
+			}
+			if (!isListenerAttached()) {
+				return null;
+			}
+			searchNodesStale = false;
+			nodes = getPreferenceNodes(true);
+			for (int i = 0; i < nodes.length; i++) {
+				((IEclipsePreferences) nodes[i].parent())
+						.addNodeChangeListener(cacheListener);
+				nodes[i].addPreferenceChangeListener(cacheListener);
+			}
+			searchNodes = nodes;
+			invalidateValueCache();
+			return nodes;
+		}
+	}
+
+	/**
+	 * Stop caching values and remove the cache listener from the searched
+	 * nodes. Called when the last property change listener is removed.
+	 */
+	private void disposeValueCache() {
+		synchronized (cacheListener) {
+			if (searchNodes != null) {
+				removeCacheListener(searchNodes);
+				searchNodes = null;
+			}
+			searchNodesStale = true;
+			invalidateValueCache();
+		}
+	}
+
+	/**
+	 * Remove the cache listener from nodes that are no longer searched. Nodes
+	 * that have been removed in the meantime no longer accept listener calls.
+	 */
+	private void removeCacheListener(IEclipsePreferences[] nodes) {
+		for (int i = 0; i < nodes.length; i++) {
+			try {
+				nodes[i].removePreferenceChangeListener(cacheListener);
+				((IEclipsePreferences) nodes[i].parent())
+						.removeNodeChangeListener(cacheListener);
+			} catch (IllegalStateException e) {
+				// the node has been removed
+			}
+		}
+	}
+
+	/**
+	 * Invalidate all cached values.
+	 */
+	private void invalidateValueCache() {
+		cacheGeneration++;
+		valueCache.clear();
 	}
 
 	/*
@@ -497,7 +718,19 @@ public class ScopedPreferenceStore extends EventManager implements
 	 */
 	@Override
 	public float getFloat(String name) {
-		String value = internalGet(name);
+		CachedValue cached = getCachedValue(name);
+		if (cached == null) {
+			return parseFloat(internalGet(name));
+		}
+		Object typed = cached.typedValue;
+		if (!(typed instanceof Float)) {
+			typed = new Float(parseFloat(cached.value));
+			cached.typedValue = typed;
+		}
+		return ((Float) typed).floatValue();
+	}
+
+	private static float parseFloat(String value) {
 		if (value == null) {
 			return FLOAT_DEFAULT_DEFAULT;
 		}
@@ -515,7 +748,19 @@ public class ScopedPreferenceStore extends EventManager implements
 	 */
 	@Override
 	public int getInt(String name) {
-		String value = internalGet(name);
+		CachedValue cached = getCachedValue(name);
+		if (cached == null) {
+			return parseInt(internalGet(name));
+		}
+		Object typed = cached.typedValue;
+		if (!(typed instanceof Integer)) {
+			typed = new Integer(parseInt(cached.value));
+			cached.typedValue = typed;
+		}
+		return ((Integer) typed).intValue();
+	}
+
+	private static int parseInt(String value) {
 		if (value == null) {
 			return INT_DEFAULT_DEFAULT;
 		}
@@ -533,7 +778,19 @@ public class ScopedPreferenceStore extends EventManager implements
 	 */
 	@Override
 	public long getLong(String name) {
-		String value = internalGet(name);
+		CachedValue cached = getCachedValue(name);
+		if (cached == null) {
+			return parseLong(internalGet(name));
+		}
+		Object typed = cached.typedValue;
+		if (!(typed instanceof Long)) {
+			typed = new Long(parseLong(cached.value));
+			cached.typedValue = typed;
+		}
+		return ((Long) typed).longValue();
+	}
+
+	private static long parseLong(String value) {
 		if (value == null) {
 			return LONG_DEFAULT_DEFAULT;
 		}
@@ -608,6 +865,7 @@ public class ScopedPreferenceStore extends EventManager implements
 		removeListenerObject(listener);
 		if (!isListenerAttached()) {
 			disposePreferenceStoreListener();
+			disposeValueCache();
 		}
 	}
 
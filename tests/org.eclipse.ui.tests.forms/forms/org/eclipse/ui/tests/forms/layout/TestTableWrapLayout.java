@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007 IBM Corporation and others.
+ * Copyright (c) 2007, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -207,4 +207,38 @@ public class TestTableWrapLayout extends TestCase {
 		shell.dispose();
 	}
 
+	/**
+	 * Test that changing the spans of the layout data or the children is
+	 * picked up by a layout that does not flush the caches.
+	 */
+	public void testTableWrapLayoutSpanChangeWithoutFlush() {
+		Display display = PlatformUI.getWorkbench().getDisplay();
+		Shell shell = new Shell(display);
+		shell.setSize(300, 300);
+		shell.setLayout(new FillLayout());
+		Composite inner = new Composite(shell, SWT.NULL);
+		TableWrapLayout tableWrapLayout = new TableWrapLayout();
+		tableWrapLayout.numColumns = 2;
+		inner.setLayout(tableWrapLayout);
+		Label l1 = new Label(inner, SWT.NULL);
+		l1.setText(A1);
+		TableWrapData data1 = new TableWrapData();
+		l1.setLayoutData(data1);
+		Label l2 = new Label(inner, SWT.NULL);
+		l2.setText(A1);
+		shell.layout();
+		assertEquals(l1.getBounds().y, l2.getBounds().y);
+
+		data1.colspan = 2;
+		inner.layout(false);
+		assertTrue(l2.getBounds().y > l1.getBounds().y);
+
+		Label l3 = new Label(inner, SWT.NULL);
+		l3.setText(A1);
+		inner.layout(false);
+		assertEquals(l2.getBounds().y, l3.getBounds().y);
+		assertTrue(l3.getBounds().x > l2.getBounds().x);
+		shell.dispose();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -488,6 +488,40 @@ public class DialogSettingsTest extends TestCase {
 				.checkAfterDeserialization(deserializedDialogSettings);
 	}
 
+	public void testLoadSkipsUnknownElements() {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<!-- comment -->\n"
+				+ "<section name=\"root\">\n"
+				+ "\t<item key=\"key\" value=\"value&#x0A;\"/>\n"
+				+ "\t<other><item key=\"nested\" value=\"ignored\"/></other>\n"
+				+ "\t<list key=\"list\">\n"
+				+ "\t\t<item value=\"a\"/>\n"
+				+ "\t\t<other/>\n"
+				+ "\t\t<item value=\"b\"/>\n"
+				+ "\t</list>\n"
+				+ "\t<section name=\"child\"><item key=\"childKey\" value=\"1\"/></section>\n"
+				+ "</section>\n";
+		DialogSettings settings = new DialogSettings("");
+		settings.load(new StringReader(xml));
+		assertEquals("root", settings.getName());
+		assertEquals("value\n", settings.get("key"));
+		assertNull(settings.get("nested"));
+		String[] list = settings.getArray("list");
+		assertEquals(2, list.length);
+		assertEquals("a", list[0]);
+		assertEquals("b", list[1]);
+		assertEquals("1", settings.getSection("child").get("childKey"));
+		assertNull(settings.getSection("child").get("key"));
+	}
+
+	public void testLoadMalformed() {
+		DialogSettings settings = new DialogSettings("test");
+		settings.load(new StringReader(
+				"<section name=\"root\"><item key=\"key\" value=\"value\"/>"));
+		assertEquals("test", settings.getName());
+		assertNull(settings.get("key"));
+	}
+
 	public void testSaveWithIOException() {
 		final DialogSettings settings = new DialogSettings("test");
 		try {
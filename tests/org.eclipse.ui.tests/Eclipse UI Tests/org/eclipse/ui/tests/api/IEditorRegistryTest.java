@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -363,6 +363,26 @@ public class IEditorRegistryTest extends TestCase {
 				.getId());
 	}
 
+	/**
+	 * Assert that a file name mapped on its own does not share the resolved
+	 * editors of other files with the same extension, and that the returned
+	 * arrays may be modified.
+	 */
+	public void testResolutionsByFilenameAndExtension() {
+		IEditorDescriptor other = fReg.getDefaultEditor("other.blah");
+		IEditorDescriptor descriptor = fReg
+				.getDefaultEditor("content-type1.blah");
+		assertNotNull(descriptor);
+		assertEquals("org.eclipse.ui.tests.contentType1Editor-fallback",
+				descriptor.getId());
+		assertEquals(other, fReg.getDefaultEditor("another.BLAH"));
+
+		IEditorDescriptor[] descriptors = fReg.getEditors("content-type1.blah");
+		assertTrue(descriptors.length > 0);
+		descriptors[0] = null;
+		assertEquals(descriptor, fReg.getEditors("content-type1.blah")[0]);
+	}
+
 	public void testDefaultedContentTypeEditor() {
 		// check the default editor
 		IEditorDescriptor descriptor = fReg
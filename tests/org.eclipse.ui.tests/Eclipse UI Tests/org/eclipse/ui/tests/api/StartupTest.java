@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2006 IBM Corporation and others.
+ * Copyright (c) 2003, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.ui.tests.api;
 
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.internal.Workbench;
 import org.eclipse.ui.tests.TestPlugin;
 import org.eclipse.ui.tests.harness.util.UITestCase;
 
@@ -26,6 +28,9 @@ public class StartupTest extends UITestCase {
         assertTrue("Startup - explicit", StartupClass.getEarlyStartupCalled());
         assertTrue("Startup - implicit", TestPlugin.getEarlyStartupCalled());
         assertTrue("Startup - completed before tests", StartupClass.getEarlyStartupCompleted());
+        Workbench workbench = (Workbench) PlatformUI.getWorkbench();
+        assertTrue("Startup - time recorded",
+                workbench.getEarlyStartupTime(TestPlugin.PLUGIN_ID) >= 0);
     }
 
     protected void doTearDown() throws Exception {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2007 IBM Corporation and others.
+ * Copyright (c) 2006, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,7 +16,11 @@ import org.eclipse.core.resources.*;
 import org.eclipse.swt.events.ShellAdapter;
 import org.eclipse.swt.events.ShellEvent;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.dialogs.FilteredResourcesSelectionDialog;
@@ -47,6 +51,130 @@ public class UIFilteredResourcesSelectionDialogAuto extends
 		closeDialog(dialog);
 	}
 	
+	/**
+	 * Checks that the list shows every matching resource exactly once, with
+	 * the history items first, once the results found while searching have
+	 * been merged into the sorted items.
+	 * 
+	 * @throws Exception
+	 */
+	public void testAllMatchesListedOnce() throws Exception {
+
+		final MockedFilteredResourcesSelectionDialog dialog = createDialog();
+		dialog.setInitialPattern("*file");
+
+		dialog.open();
+
+		Table table = findTable(dialog.getShell());
+		assertNotNull(table);
+
+		int expected = historyResources.length + nonHistoryResources.length;
+		List listed = waitForListedResources(table, expected);
+
+		assertEquals(expected, listed.size());
+		assertEquals(expected, new HashSet(listed).size());
+		Set history = new HashSet(Arrays.asList(historyResources));
+		for (int i = 0; i < historyResources.length; i++) {
+			assertTrue(history.contains(listed.get(i)));
+		}
+		assertTrue(listed.containsAll(Arrays.asList(nonHistoryResources)));
+
+		closeDialog(dialog);
+	}
+
+	/**
+	 * Checks that resources which become team private or hidden after the
+	 * workspace has been searched once are no longer listed.
+	 * 
+	 * @throws Exception
+	 */
+	public void testHiddenAndTeamPrivateResourcesNotListed() throws Exception {
+
+		MockedFilteredResourcesSelectionDialog dialog = createDialog();
+		dialog.setInitialPattern("*file");
+		dialog.open();
+		int expected = historyResources.length + nonHistoryResources.length;
+		assertEquals(expected, waitForListedResources(
+				findTable(dialog.getShell()), expected).size());
+		closeDialog(dialog);
+
+		IResource teamPrivate = nonHistoryResources[0];
+		IResource hidden = nonHistoryResources[1];
+		try {
+			teamPrivate.setTeamPrivateMember(true);
+			hidden.setHidden(true);
+
+			dialog = createDialog();
+			dialog.setInitialPattern("*file");
+			dialog.open();
+			expected -= 2;
+			List listed = waitForListedResources(findTable(dialog.getShell()),
+					expected);
+
+			assertEquals(expected, listed.size());
+			assertFalse(listed.contains(teamPrivate));
+			assertFalse(listed.contains(hidden));
+
+			closeDialog(dialog);
+		} finally {
+			teamPrivate.setTeamPrivateMember(false);
+			hidden.setHidden(false);
+		}
+	}
+
+	/**
+	 * Processes events until the given table lists the expected number of
+	 * resources, or for at most ten seconds.
+	 */
+	private static List waitForListedResources(Table table, int expected)
+			throws InterruptedException {
+		assertNotNull(table);
+		List listed = new ArrayList();
+		Display display = table.getDisplay();
+		long end = System.currentTimeMillis() + 10000;
+		while (System.currentTimeMillis() < end) {
+			while (display.readAndDispatch()) {
+				// process the pending refreshes
+			}
+			listed = getListedResources(table);
+			if (listed.size() == expected) {
+				break;
+			}
+			Thread.sleep(50);
+		}
+		return listed;
+	}
+
+	private static Table findTable(Control control) {
+		if (control instanceof Table) {
+			return (Table) control;
+		}
+		if (control instanceof Composite) {
+			Control[] children = ((Composite) control).getChildren();
+			for (int i = 0; i < children.length; i++) {
+				Table table = findTable(children[i]);
+				if (table != null) {
+					return table;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static List getListedResources(Table table) {
+		List resources = new ArrayList();
+		int count = table.getItemCount();
+		for (int i = 0; i < count; i++) {
+			// the list is virtual, asking for the text fills in the item
+			table.getItem(i).getText();
+			Object data = table.getItem(i).getData();
+			if (data instanceof IResource) {
+				resources.add(data);
+			}
+		}
+		return resources;
+	}
+
 	private static MockedFilteredResourcesSelectionDialog createDialog() {
 		final IWorkbenchWindow window = PlatformUI.getWorkbench()
 				.getActiveWorkbenchWindow();
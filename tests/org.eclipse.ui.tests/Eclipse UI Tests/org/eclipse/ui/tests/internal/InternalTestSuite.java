@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -58,6 +58,7 @@ public class InternalTestSuite extends TestSuite {
         addTest(new TestSuite(WorkbenchWindowSubordinateSourcesTests.class));
         addTest(new TestSuite(ReopenMenuTest.class));
         addTest(new TestSuite(UtilTest.class));
+        addTest(new TestSuite(StartupProfilerTest.class));
 		addTest(new TestSuite(MarkerTesterTest.class));
 		addTest(new TestSuite(TextHandlerTest.class));
         addTest(new TestSuite(PerspectiveSwitcherTest.class));
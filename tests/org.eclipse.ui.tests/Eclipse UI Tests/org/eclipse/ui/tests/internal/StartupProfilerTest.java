@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2014 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.ui.internal.misc.StartupProfiler;
+import org.eclipse.ui.internal.misc.StartupProfiler.Phase;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the trace event format written by the {@link StartupProfiler}.
+ */
+public class StartupProfilerTest extends TestCase {
+	public StartupProfilerTest(String name) {
+		super(name);
+	}
+
+	public void testNoPhases() {
+		String report = StartupProfiler.toTraceEvents(new LinkedHashMap<Long, String>(),
+				new ArrayList<Phase>(), 0);
+		assertEquals("{\"traceEvents\":[\n],\"displayTimeUnit\":\"ms\"}\n", report);
+	}
+
+	public void testPhases() {
+		Map<Long, String> threadNames = new LinkedHashMap<Long, String>();
+		threadNames.put(Long.valueOf(1), "main");
+		List<Phase> phases = new ArrayList<Phase>();
+		phases.add(new Phase("init", 1, 3000000, 2500000, 42));
+		phases.add(new Phase("postStartup", 1, 6000000, 999, 0));
+
+		String report = StartupProfiler.toTraceEvents(threadNames, phases, 1000000);
+
+		assertEquals("{\"traceEvents\":["
+				+ "\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,"
+				+ "\"args\":{\"name\":\"main\"}},"
+				+ "\n{\"name\":\"init\",\"cat\":\"startup\",\"ph\":\"X\",\"pid\":1,\"tid\":1,"
+				+ "\"ts\":2000,\"dur\":2500,\"args\":{\"loadedClasses\":42}},"
+				+ "\n{\"name\":\"postStartup\",\"cat\":\"startup\",\"ph\":\"X\",\"pid\":1,\"tid\":1,"
+				+ "\"ts\":5000,\"dur\":0,\"args\":{\"loadedClasses\":0}}"
+				+ "\n],\"displayTimeUnit\":\"ms\"}\n", report);
+	}
+
+	public void testEscapedNames() {
+		Map<Long, String> threadNames = new LinkedHashMap<Long, String>();
+		threadNames.put(Long.valueOf(7), "Worker \"1\"");
+		List<Phase> phases = new ArrayList<Phase>();
+		phases.add(new Phase("a\\b\tc", 7, 0, 0, 0));
+
+		String report = StartupProfiler.toTraceEvents(threadNames, phases, 0);
+
+		assertTrue(report, report.indexOf("\"args\":{\"name\":\"Worker \\\"1\\\"\"}") >= 0);
+		assertTrue(report, report.indexOf("{\"name\":\"a\\\\b\\u0009c\",") >= 0);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2006 IBM Corporation and others.
+ * Copyright (c) 2005, 2014 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -16,6 +16,7 @@ import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.ui.preferences.ScopedPreferenceStore;
 import org.eclipse.ui.tests.harness.util.UITestCase;
+import org.osgi.service.prefs.BackingStoreException;
 
 public class ScopedPreferenceStoreTestCase extends UITestCase {
 
@@ -97,4 +98,55 @@ public class ScopedPreferenceStoreTestCase extends UITestCase {
 		assertTrue("3.0", found[0]);
 }
 
+	public void testValuesChangedOutsideStore() {
+		IScopeContext context = new InstanceScope();
+		String qualifier = "org.eclipse.ui.tests.preferences#testValuesChangedOutsideStore";
+		ScopedPreferenceStore store = new ScopedPreferenceStore(context, qualifier);
+		String key = "key";
+		IEclipsePreferences node = context.getNode(qualifier);
+		IEclipsePreferences defaults = new DefaultScope().getNode(qualifier);
+
+		// values are only cached while listeners are attached
+		IPropertyChangeListener listener = new IPropertyChangeListener() {
+			public void propertyChange(PropertyChangeEvent event) {
+				// nothing to do
+			}
+		};
+		store.addPropertyChangeListener(listener);
+
+		// read the value so that it is cached
+		assertEquals("0.1", 0, store.getInt(key));
+
+		// change the default and the instance value outside of the store
+		defaults.putInt(key, 1);
+		assertEquals("1.0", 1, store.getInt(key));
+		assertEquals("1.1", "1", store.getString(key));
+		node.putInt(key, 2);
+		assertEquals("1.2", 2, store.getInt(key));
+		node.remove(key);
+		assertEquals("1.3", 1, store.getInt(key));
+
+		// remove and recreate the instance node
+		node.putBoolean(key, true);
+		assertTrue("2.0", store.getBoolean(key));
+		try {
+			node.removeNode();
+		} catch (BackingStoreException e) {
+			fail("2.99", e);
+		}
+		assertEquals("3.0", 1, store.getInt(key));
+		context.getNode(qualifier).putInt(key, 3);
+		assertEquals("3.1", 3, store.getInt(key));
+
+		// values are looked up again once the last listener is removed
+		store.removePropertyChangeListener(listener);
+		assertEquals("4.0", 3, store.getInt(key));
+		context.getNode(qualifier).putInt(key, 4);
+		assertEquals("4.1", 4, store.getInt(key));
+
+		defaults.remove(key);
+		context.getNode(qualifier).remove(key);
+		assertFalse("5.0", store.contains(key));
+	}
+
 }
@@ -407,7 +407,69 @@ public class EvaluationServiceTest extends UITestCase {
 		assertFalse(listener.currentValue);
 		assertEquals(3, listener.count);
 	}
-	
+
+	private static class CountingUserExpression extends UserExpression {
+		static int evaluations = 0;
+
+		public CountingUserExpression(String lookFor) {
+			super(lookFor);
+		}
+
+		public EvaluationResult evaluate(IEvaluationContext context)
+				throws CoreException {
+			evaluations++;
+			return super.evaluate(context);
+		}
+
+		public boolean equals(Object obj) {
+			return obj instanceof CountingUserExpression
+					&& lookFor.equals(((CountingUserExpression) obj).lookFor);
+		}
+
+		public int hashCode() {
+			return lookFor.hashCode();
+		}
+	}
+
+	public void testEqualExpressionsEvaluatedOnce() throws Exception {
+		IWorkbenchWindow window = openTestWindow();
+		IEvaluationService service = (IEvaluationService) window
+				.getService(IEvaluationService.class);
+		ISourceProviderService sps = (ISourceProviderService) window
+				.getService(ISourceProviderService.class);
+		ActiveUserSourceProvider userProvider = (ActiveUserSourceProvider) sps
+				.getSourceProvider("username");
+		userProvider.setUsername("guest");
+
+		MyEval listener1 = new MyEval();
+		MyEval listener2 = new MyEval();
+		IEvaluationReference ref1 = service.addEvaluationListener(
+				new CountingUserExpression("Paul"), listener1,
+				IEvaluationService.RESULT);
+		IEvaluationReference ref2 = service.addEvaluationListener(
+				new CountingUserExpression("Paul"), listener2,
+				IEvaluationService.RESULT);
+		try {
+			assertFalse(listener1.currentValue);
+			assertFalse(listener2.currentValue);
+
+			CountingUserExpression.evaluations = 0;
+			userProvider.setUsername("Paul");
+			assertTrue(listener1.currentValue);
+			assertTrue(listener2.currentValue);
+			assertEquals(1, CountingUserExpression.evaluations);
+
+			CountingUserExpression.evaluations = 0;
+			userProvider.setUsername("guest");
+			assertFalse(listener1.currentValue);
+			assertFalse(listener2.currentValue);
+			assertEquals(1, CountingUserExpression.evaluations);
+		} finally {
+			service.removeEvaluationListener(ref1);
+			service.removeEvaluationListener(ref2);
+		}
+	}
+
 	public void testSourceProviderPriority() throws Exception {
 		IHandlerService hs = (IHandlerService) getWorkbench().getService(IHandlerService.class);
 		